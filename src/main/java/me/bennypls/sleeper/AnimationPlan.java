@@ -0,0 +1,138 @@
+package me.bennypls.sleeper;
+
+/**
+ * <h1>
+ * AnimationPlan
+ *
+ * <p>
+ * The validated frames of the skip-night animation, compiled when the configuration is loaded.
+ *
+ * <p>
+ * The time to advance is split in buckets of {@link AnimationPlan#BUCKET_SIZE} ticks, and each bucket has a table
+ * with the fraction of the time advanced after each frame, following the configured easing.
+ * Starting a skip only looks up the table of its bucket, nothing is computed per skip.
+ */
+public final class AnimationPlan {
+    /** The size in ticks of the buckets of time to advance. */
+    static final int BUCKET_SIZE = 100;
+    /** The fixed-point value of a fraction of 1 in the frame tables. */
+    static final int ONE = 1 << 16;
+    /** The length of a Minecraft day in ticks, the maximum time an animation can advance. */
+    private static final int DAY_LENGTH = 24000;
+    /** The minimum time change between frames, to keep the frame tables small. */
+    static final int MIN_SPEED = 10;
+    /** The average time change between frames. */
+    private final int speed;
+    /** The ticks to wait between frames. */
+    private final int interval;
+    /** The easing curve of the animation. */
+    private final Easing easing;
+    /** The fixed-point fraction of the time advanced after each frame, by bucket. */
+    private final int[][] frames;
+
+    /**
+     * <h1>
+     * AnimationPlan Constructor
+     *
+     * <p>
+     * Validates the animation settings and compiles the frame table of every bucket.
+     *
+     * @param speed    the average time change between frames.
+     * @param interval the ticks to wait between frames.
+     * @param easing   the easing curve of the animation.
+     * @throws IllegalArgumentException if the speed or the interval are out of range.
+     */
+    public AnimationPlan(int speed, int interval, Easing easing) {
+        if (speed < MIN_SPEED || speed > DAY_LENGTH) {
+            throw new IllegalArgumentException("The animation-speed must be between " + MIN_SPEED + " and " + DAY_LENGTH + ", was " + speed + ".");
+        }
+
+        if (interval < 1) {
+            throw new IllegalArgumentException("The animation-interval must be at least 1, was " + interval + ".");
+        }
+
+        this.speed = speed;
+        this.interval = interval;
+        this.easing = easing;
+        this.frames = new int[DAY_LENGTH / BUCKET_SIZE + 1][];
+
+        for (int bucket = 0; bucket < frames.length; bucket++) {
+            frames[bucket] = compileFrames(Math.max(1, bucket * BUCKET_SIZE / speed));
+        }
+    }
+
+    /**
+     * <h1>
+     * compileFrames
+     *
+     * <p>
+     * Compiles the fixed-point fraction of the time advanced after each frame, the last one is always 1.
+     *
+     * @param totalFrames the number of frames of the animation.
+     * @return the frame table.
+     */
+    private int[] compileFrames(int totalFrames) {
+        var table = new int[totalFrames];
+
+        for (int i = 0; i < totalFrames; i++) {
+            table[i] = (int) Math.round(easing.apply((i + 1) / (double) totalFrames) * ONE);
+        }
+
+        table[totalFrames - 1] = ONE;
+        return table;
+    }
+
+    /**
+     * <h1>
+     * getFrames
+     *
+     * <p>
+     * Returns the frame table to advance the given time.
+     *
+     * @param distance the ticks to advance, from 0 to a day.
+     * @return the fixed-point fraction of the time advanced after each frame, must not be modified.
+     */
+    int[] getFrames(long distance) {
+        int bucket = (int) Math.min(frames.length - 1, Math.max(0, distance / BUCKET_SIZE));
+        return frames[bucket];
+    }
+
+    /**
+     * <h1>
+     * getSpeed
+     *
+     * <p>
+     * Returns the average time change between frames.
+     *
+     * @return the speed of the animation.
+     */
+    public int getSpeed() {
+        return speed;
+    }
+
+    /**
+     * <h1>
+     * getInterval
+     *
+     * <p>
+     * Returns the ticks to wait between frames.
+     *
+     * @return the interval of the animation.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * <h1>
+     * getEasing
+     *
+     * <p>
+     * Returns the easing curve of the animation.
+     *
+     * @return the easing of the animation.
+     */
+    public Easing getEasing() {
+        return easing;
+    }
+}
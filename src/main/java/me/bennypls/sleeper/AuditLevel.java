@@ -0,0 +1,38 @@
+package me.bennypls.sleeper;
+
+import java.util.Locale;
+
+/**
+ * <h1>
+ * AuditLevel
+ *
+ * <p>
+ * The records written to the audit log.
+ */
+public enum AuditLevel {
+    /** Nothing is recorded. */
+    OFF,
+    /** Only the skips, the refused skips and the changes of the ignored list are recorded. */
+    DECISIONS,
+    /** The decisions and the players that start or stop resting, sampled by the audit sample rate. */
+    ALL;
+
+    /**
+     * <h1>
+     * fromName
+     *
+     * <p>
+     * Returns the audit level with the given configuration name, like "decisions".
+     *
+     * @param name the configuration name of the audit level.
+     * @return the audit level with that name.
+     * @throws IllegalArgumentException if there is no audit level with that name.
+     */
+    public static AuditLevel fromName(String name) {
+        try {
+            return valueOf(String.valueOf(name).trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown audit level - " + name + " -.", e);
+        }
+    }
+}
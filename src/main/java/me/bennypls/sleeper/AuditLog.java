@@ -0,0 +1,503 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * <h1>
+ * AuditLog
+ *
+ * <p>
+ * This is a Bukkit event listener that keeps a structured record of the players that start or stop resting,
+ * the sleep votes, the skipped nights, the refused skips and the changes of the ignored list.
+ *
+ * <p>
+ * The records are created on the main thread and added to an {@link AuditRingBuffer}, a background thread
+ * drains the buffer every second to JSON lines files in the audit folder of the plugin. The current file is
+ * audit.jsonl, when it grows over the configured size it is rotated to audit.1.jsonl, audit.2.jsonl and so on,
+ * and the oldest files are deleted. If the writer can't keep up the new records are dropped, never the tick.
+ *
+ * <p>
+ * The audit settings are copied from the {@link Configuration} on the main thread into an immutable
+ * {@link Settings}, the writer thread only reads that copy.
+ */
+public final class AuditLog implements Listener {
+    /** The number of records the buffer can hold. */
+    private static final int BUFFER_CAPACITY = 4096;
+    /** The milliseconds between each drain of the buffer. */
+    private static final long DRAIN_MILLIS = 1000;
+    /** The name of the audit files, without the extension. */
+    private static final String FILE_NAME = "audit";
+    /** The extension of the audit files. */
+    private static final String EXTENSION = ".jsonl";
+    /** The JavaPlugin instance used by the audit log. */
+    private final JavaPlugin plugin;
+    /** The Configuration instance used by the audit log. */
+    private final Configuration configuration;
+    /** The Resting instance with the resting counts of the worlds. */
+    private final Resting resting;
+    /** The directory of the audit files. */
+    private final File directory;
+    /** The records waiting to be written. */
+    private final AuditRingBuffer<AuditRecord> buffer = new AuditRingBuffer<>(BUFFER_CAPACITY);
+    /** The number of records dropped because the buffer was full. */
+    private final LongAdder dropped = new LongAdder();
+    /** The audit settings copied on the main thread, read by the writer thread. */
+    private volatile Settings settings;
+    /** The number of rest and leave records seen since the last sampled one, only used on the main thread. */
+    private int sampleCounter;
+    /** The background thread that writes the records, null if the audit log is stopped. */
+    private ScheduledExecutorService executor;
+    /** The stream of the current audit file, null if it is not open, only used by the writer. */
+    private OutputStream output;
+    /** The size in bytes of the current audit file, only used by the writer. */
+    private long fileSize;
+
+    /**
+     * <h1>
+     * AuditLog Constructor
+     *
+     * <p>
+     * Constructs a new AuditLog instance that writes to the audit folder of the plugin.
+     *
+     * @param plugin        The JavaPlugin instance to use.
+     * @param configuration The Configuration instance to use.
+     * @param resting       The Resting instance with the resting counts of the worlds.
+     */
+    public AuditLog(JavaPlugin plugin, Configuration configuration, Resting resting) {
+        this.plugin = plugin;
+        this.configuration = configuration;
+        this.resting = resting;
+        this.directory = new File(plugin.getDataFolder(), FILE_NAME);
+        reloadSettings();
+    }
+
+    /**
+     * <h1>
+     * Reload Settings
+     *
+     * <p>
+     * Copies the audit settings from the configuration, must be called on the main thread after it is reloaded.
+     */
+    public void reloadSettings() {
+        settings = new Settings(
+            configuration.getAuditLevel(),
+            configuration.getAuditSampleRate(),
+            configuration.getAuditMaxFileBytes(),
+            configuration.getAuditMaxFiles()
+        );
+    }
+
+    /**
+     * <h1>
+     * On Rest Count Change
+     *
+     * <p>
+     * Records a player that starts or stops resting, sampled by {@link Configuration#getAuditSampleRate()}.
+     * Changes cancelled by other plugins are recorded too.
+     *
+     * @param event the SleeperRestCountChangeEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRestCountChange(SleeperRestCountChangeEvent event) {
+        var current = settings;
+
+        if (current.level() != AuditLevel.ALL || ++sampleCounter < current.sampleRate()) {
+            return;
+        }
+
+        sampleCounter = 0;
+        record(new AuditRecord(
+            System.currentTimeMillis(),
+            event.isResting() ? AuditRecord.Type.REST : AuditRecord.Type.LEAVE,
+            event.getWorld().getName(),
+            event.getPlayer().getName(),
+            null,
+            event.getNewCount(),
+            event.getNecessaryToSkip(),
+            event.isCancelled() ? "cancelled" : null
+        ));
+    }
+
+    /**
+     * <h1>
+     * On Vote
+     *
+     * <p>
+     * Records a sleep vote, a vote against skipping can block a skip so votes are recorded with the decisions.
+     * Votes rejected by other plugins are recorded too.
+     *
+     * @param event the SleeperVoteEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVote(SleeperVoteEvent event) {
+        if (settings.level() == AuditLevel.OFF) {
+            return;
+        }
+
+        var vote = event.getVote() == null ? "cancel" : event.getVote() ? "yes" : "no";
+
+        record(new AuditRecord(
+            System.currentTimeMillis(),
+            AuditRecord.Type.VOTE,
+            event.getWorld().getName(),
+            event.getPlayer().getName(),
+            null,
+            event.getWeight(),
+            -1,
+            event.isCancelled() ? vote + ", cancelled" : vote
+        ));
+    }
+
+    /**
+     * <h1>
+     * On Night Skip
+     *
+     * <p>
+     * Records a skipped night, with who triggered it and if it was forced by a command, triggered by resting
+     * players or by another server of the network.
+     *
+     * @param event the SleeperNightSkipEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onNightSkip(SleeperNightSkipEvent event) {
+        if (settings.level() == AuditLevel.OFF) {
+            return;
+        }
+
+        var world = event.getWorld();
+        record(new AuditRecord(
+            System.currentTimeMillis(),
+            AuditRecord.Type.SKIP,
+            world.getName(),
+            getInitiatorName(event.getInitiator()),
+            getSource(event.isForced(), event.getInitiator()),
+            resting.getNetworkSkipCount(world),
+            resting.getNetworkNecessaryToSkip(world),
+            null
+        ));
+    }
+
+    /**
+     * <h1>
+     * On Skip Refused
+     *
+     * <p>
+     * Records a refused skip with its reason and who triggered it, even if the refusal message was cancelled.
+     *
+     * @param event the SleeperSkipRefusedEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onSkipRefused(SleeperSkipRefusedEvent event) {
+        if (settings.level() == AuditLevel.OFF) {
+            return;
+        }
+
+        var world = event.getWorld();
+        record(new AuditRecord(
+            System.currentTimeMillis(),
+            AuditRecord.Type.REFUSAL,
+            world.getName(),
+            getInitiatorName(event.getInitiator()),
+            getSource(event.isForced(), event.getInitiator()),
+            resting.getNetworkSkipCount(world),
+            resting.getNetworkNecessaryToSkip(world),
+            event.getReason().name().toLowerCase(Locale.ROOT)
+        ));
+    }
+
+    /**
+     * <h1>
+     * Get Initiator Name
+     *
+     * <p>
+     * Returns the name of who triggered a skip.
+     *
+     * @param initiator who triggered the skip, null if it was another server of the network.
+     * @return the name of the initiator, or null if there is none.
+     */
+    private static String getInitiatorName(CommandSender initiator) {
+        return initiator == null ? null : initiator.getName();
+    }
+
+    /**
+     * <h1>
+     * Get Source
+     *
+     * <p>
+     * Returns how a skip was triggered.
+     *
+     * @param forced    whether the skip was forced by a command.
+     * @param initiator who triggered the skip, null if it was another server of the network.
+     * @return "command", "cluster" or "resting".
+     */
+    private static String getSource(boolean forced, CommandSender initiator) {
+        if (forced) {
+            return "command";
+        }
+
+        return initiator == null ? "cluster" : "resting";
+    }
+
+    /**
+     * <h1>
+     * Record Ignore Change
+     *
+     * <p>
+     * Records a player added to or removed from the ignored list.
+     *
+     * @param source     the name of who changed the ignored list.
+     * @param playerName the name of the player added or removed.
+     * @param added      true if the player was added, false if it was removed.
+     */
+    public void recordIgnoreChange(String source, String playerName, boolean added) {
+        if (settings.level() == AuditLevel.OFF) {
+            return;
+        }
+
+        record(new AuditRecord(
+            System.currentTimeMillis(),
+            AuditRecord.Type.IGNORE,
+            null,
+            playerName,
+            source,
+            -1,
+            -1,
+            added ? "added" : "removed"
+        ));
+    }
+
+    /**
+     * <h1>
+     * Start
+     *
+     * <p>
+     * Starts the background thread that writes the records.
+     */
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "Sleeper Audit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::drain, DRAIN_MILLIS, DRAIN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * <h1>
+     * Stop
+     *
+     * <p>
+     * Stops the background thread and writes the remaining records on the calling thread.
+     */
+    public void stop() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("The audit log writer did not stop, the last records are lost.");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            executor = null;
+        }
+
+        drain();
+        close();
+    }
+
+    /**
+     * <h1>
+     * Record
+     *
+     * <p>
+     * Adds a record to the buffer, or counts it as dropped if the buffer is full.
+     *
+     * @param record the record to add.
+     */
+    private void record(AuditRecord record) {
+        if (!buffer.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * <h1>
+     * Drain
+     *
+     * <p>
+     * Writes every record of the buffer to the current audit file, rotating it when it is full.
+     * Only called from the writer thread, or from {@link #stop()} once the writer has stopped.
+     */
+    private void drain() {
+        var current = settings;
+
+        try {
+            AuditRecord record;
+
+            while ((record = buffer.poll()) != null) {
+                write(record.toJson(), current);
+            }
+
+            if (output != null) {
+                output.flush();
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not write the audit log.", e);
+            close();
+        }
+
+        long lost = dropped.sumThenReset();
+
+        if (lost > 0) {
+            plugin.getLogger().warning("The audit log dropped - " + lost + " - records, the buffer was full.");
+        }
+    }
+
+    /**
+     * <h1>
+     * Write
+     *
+     * <p>
+     * Writes a line to the current audit file, opening it or rotating it if necessary.
+     *
+     * @param line     the JSON line to write, without the line break.
+     * @param settings the audit settings copied on the main thread.
+     * @throws IOException if the file can't be written.
+     */
+    private void write(String line, Settings settings) throws IOException {
+        var bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+
+        if (output != null && fileSize + bytes.length > settings.maxFileBytes()) {
+            close();
+            rotate(settings.maxFiles());
+        }
+
+        if (output == null) {
+            open();
+        }
+
+        output.write(bytes);
+        fileSize += bytes.length;
+    }
+
+    /**
+     * <h1>
+     * Open
+     *
+     * <p>
+     * Opens the current audit file to append to it.
+     *
+     * @throws IOException if the file can't be opened.
+     */
+    private void open() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create the audit directory - " + directory + " -.");
+        }
+
+        var file = getFile(0);
+        fileSize = file.length();
+        output = new BufferedOutputStream(Files.newOutputStream(
+            file.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND
+        ));
+    }
+
+    /**
+     * <h1>
+     * Close
+     *
+     * <p>
+     * Closes the current audit file, if it is open.
+     */
+    private void close() {
+        if (output == null) {
+            return;
+        }
+
+        try {
+            output.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not close the audit log.", e);
+        }
+
+        output = null;
+    }
+
+    /**
+     * <h1>
+     * Rotate
+     *
+     * <p>
+     * Shifts the number of every audit file by one, deleting the oldest one over the maximum number of files.
+     *
+     * @param maxFiles the number of old audit files to keep.
+     * @throws IOException if a file can't be moved.
+     */
+    private void rotate(int maxFiles) throws IOException {
+        Files.deleteIfExists(getFile(maxFiles).toPath());
+
+        for (int i = maxFiles - 1; i >= 0; i--) {
+            var file = getFile(i);
+
+            if (file.exists()) {
+                Files.move(file.toPath(), getFile(i + 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * <h1>
+     * Get File
+     *
+     * <p>
+     * Returns the audit file with the given number, 0 being the current one.
+     *
+     * @param number the number of the file.
+     * @return the audit file.
+     */
+    private File getFile(int number) {
+        return new File(directory, number == 0 ? FILE_NAME + EXTENSION : FILE_NAME + "." + number + EXTENSION);
+    }
+
+    /**
+     * <h1>
+     * Settings
+     *
+     * <p>
+     * An immutable copy of the audit settings of the configuration.
+     *
+     * @param level        the records to keep.
+     * @param sampleRate   one of every how many rest and leave records is kept.
+     * @param maxFileBytes the size in bytes at which the current audit file is rotated.
+     * @param maxFiles     the number of old audit files to keep.
+     */
+    private record Settings(AuditLevel level, int sampleRate, long maxFileBytes, int maxFiles) {
+    }
+}
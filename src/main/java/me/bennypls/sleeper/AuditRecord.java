@@ -0,0 +1,125 @@
+package me.bennypls.sleeper;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * <h1>
+ * AuditRecord
+ *
+ * <p>
+ * A single record of the audit log, created on the main thread and converted to a JSON line by the writer thread.
+ *
+ * @param time      the epoch milliseconds at which the record was created.
+ * @param type      the type of the record.
+ * @param world     the name of the world, or null if the record is not about a world.
+ * @param player    the name of the player the record is about or who triggered the skip, or null if there is none.
+ * @param source    who caused the record, like the sender of a command or how a skip was triggered, or null if there is none.
+ * @param count     the number of resting players, or -1 if it doesn't apply.
+ * @param necessary the number of resting players necessary to skip the night, or -1 if it doesn't apply.
+ * @param detail    the detail of the record, like the reason of a refused skip, or null if there is none.
+ */
+record AuditRecord(
+    long time,
+    Type type,
+    String world,
+    String player,
+    String source,
+    int count,
+    int necessary,
+    String detail
+) {
+
+    /**
+     * <h1>
+     * Type
+     *
+     * <p>
+     * The types of the audit records.
+     */
+    enum Type {
+        /** A player started resting. */
+        REST,
+        /** A player stopped resting. */
+        LEAVE,
+        /** A player cast, changed or cancelled a sleep vote. */
+        VOTE,
+        /** The night was skipped. */
+        SKIP,
+        /** A skip of the night was refused. */
+        REFUSAL,
+        /** A player was added to or removed from the ignored list. */
+        IGNORE
+    }
+
+    /**
+     * <h1>
+     * toJson
+     *
+     * <p>
+     * Returns this record as a single line JSON object, without the fields that don't apply.
+     *
+     * @return the JSON object of this record.
+     */
+    String toJson() {
+        var json = new StringBuilder(128)
+            .append("{\"time\":\"").append(Instant.ofEpochMilli(time)).append('"')
+            .append(",\"type\":\"").append(type.name().toLowerCase(Locale.ROOT)).append('"');
+
+        appendString(json, "world", world);
+        appendString(json, "player", player);
+        appendString(json, "source", source);
+
+        if (count >= 0) {
+            json.append(",\"count\":").append(count);
+        }
+
+        if (necessary >= 0) {
+            json.append(",\"necessary\":").append(necessary);
+        }
+
+        appendString(json, "detail", detail);
+
+        return json.append('}').toString();
+    }
+
+    /**
+     * <h1>
+     * appendString
+     *
+     * <p>
+     * Appends a string field to the JSON object, escaped, if the value is not null.
+     *
+     * @param json  the JSON object being built.
+     * @param name  the name of the field.
+     * @param value the value of the field, or null to not append it.
+     */
+    private static void appendString(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+
+        json.append(",\"").append(name).append("\":\"");
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+
+        json.append('"');
+    }
+}
@@ -0,0 +1,89 @@
+package me.bennypls.sleeper;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h1>
+ * AuditRingBuffer
+ *
+ * <p>
+ * A bounded lock-free ring buffer for a single producer thread and a single consumer thread.
+ *
+ * <p>
+ * The producer only writes the tail and the consumer only writes the head, each published with an ordered write
+ * after the element, so neither side ever waits for the other. When the buffer is full new elements are rejected
+ * instead of blocking the producer.
+ *
+ * @param <T> the type of the elements.
+ */
+final class AuditRingBuffer<T> {
+    /** The slots of the elements, the length is a power of two. */
+    private final Object[] elements;
+    /** The mask to map a position to its slot. */
+    private final int mask;
+    /** The position of the next element to read, only written by the consumer. */
+    private final AtomicLong head = new AtomicLong();
+    /** The position of the next element to write, only written by the producer. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * <h1>
+     * AuditRingBuffer Constructor
+     *
+     * <p>
+     * Constructs a new empty AuditRingBuffer with at least the given capacity, rounded up to a power of two.
+     *
+     * @param capacity the minimum number of elements the buffer can hold, at least 2.
+     */
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.elements = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * <h1>
+     * offer
+     *
+     * <p>
+     * Adds an element to the buffer, must only be called from the producer thread.
+     *
+     * @param element the element to add.
+     * @return true if the element was added, false if the buffer is full.
+     */
+    boolean offer(T element) {
+        long position = tail.get();
+
+        if (position - head.get() == elements.length) {
+            return false;
+        }
+
+        elements[(int) (position & mask)] = element;
+        tail.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * <h1>
+     * poll
+     *
+     * <p>
+     * Removes the oldest element of the buffer, must only be called from the consumer thread.
+     *
+     * @return the oldest element, or null if the buffer is empty.
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        long position = head.get();
+
+        if (position == tail.get()) {
+            return null;
+        }
+
+        int slot = (int) (position & mask);
+        var element = (T) elements[slot];
+        elements[slot] = null;
+        head.lazySet(position + 1);
+        return element;
+    }
+}
@@ -1,16 +1,17 @@
 package me.bennypls.sleeper;
 
 import org.bukkit.Bukkit;
-import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerBedEnterEvent;
 import org.bukkit.event.player.PlayerBedLeaveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
 import java.util.logging.Level;
 
 /**
@@ -39,8 +40,10 @@ public final class BedListener implements Listener {
      * The Resting instance used by this listener.
      */
     private final Resting resting;
-    /** The number of players currently resting in a hashmap by world. */
-    private final Map<World, Integer> actualPlayersResting = new HashMap<>();
+    /** The rate limiter of the bed entries of each player. */
+    private final BedRateLimiter rateLimiter;
+    /** The players with a delayed resting process for their suppressed bed entries. */
+    private final Set<UUID> pendingPlayers = new HashSet<>();
 
     /**
      * <h1>
@@ -56,6 +59,7 @@ public final class BedListener implements Listener {
         this.plugin = plugin;
         this.configuration = config;
         this.resting = resting;
+        this.rateLimiter = resting.getBedRateLimiter();
     }
 
     /**
@@ -65,13 +69,53 @@ public final class BedListener implements Listener {
      * Listens for a PlayerBedEnterEvent and starts the resting process for the player.
      * <p>
      * Tasks the execution of startResting after one 1 tick.
+     * <p>
+     * Entries rejected by the {@link BedRateLimiter} are merged into a single delayed startResting
+     * for the player, executed once it takes a token again, so spamming the bed costs one task at most.
      *
      * @param event the PlayerBedEnterEvent that occurred.
      * @see BedListener#startResting
      */
     @EventHandler
     public void bedInteraction(PlayerBedEnterEvent event) {
-        Bukkit.getScheduler().runTaskLater(plugin, () -> startResting(event.getPlayer()), 1);
+        var player = event.getPlayer();
+        var playerId = player.getUniqueId();
+
+        if (pendingPlayers.contains(playerId)) {
+            return;
+        }
+
+        if (rateLimiter.tryAcquire(playerId)) {
+            Bukkit.getScheduler().runTaskLater(plugin, () -> startResting(player), 1);
+            return;
+        }
+
+        pendingPlayers.add(playerId);
+        scheduleDelayedResting(player);
+    }
+
+    /**
+     * <h1>
+     * Schedule Delayed Resting
+     *
+     * <p>
+     * Tasks the execution of startResting when the {@link BedRateLimiter} allows the player again.
+     * The delayed entry takes its own token, if another entry took it first the task is scheduled again.
+     *
+     * @param player the player whose bed entry was rejected.
+     */
+    private void scheduleDelayedResting(Player player) {
+        var playerId = player.getUniqueId();
+
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (!rateLimiter.tryAcquire(playerId)) {
+                scheduleDelayedResting(player);
+                return;
+            }
+
+            pendingPlayers.remove(playerId);
+            startResting(player);
+        }, rateLimiter.getTicksUntilAllowed(playerId));
     }
 
     /**
@@ -80,41 +124,58 @@ public final class BedListener implements Listener {
      *
      * <p>
      * Starts the resting process for the specified player.
-     * This will add one to {@link BedListener#actualPlayersResting} if the name of the player
+     * This will count the player as resting in {@link Resting} if the name of the player
      * isn't in the ignored list and still in the bed.
      *
      * <p>
-     * This also comproves if the {@link BedListener#actualPlayersResting} is sufficient number to trigger the event
+     * A {@link SleeperRestCountChangeEvent} is called before counting the player, if it is cancelled
+     * the player is not counted.
+     *
+     * <p>
+     * This also comproves if the resting players are a sufficient number to trigger the event
      * skip night based in the configuration to a min of one player to skip the night.
+     * In cluster mode the resting players and the threshold are the ones of the whole network.
      *
      * @param player The player to start resting.
      */
     private void startResting(Player player) {
         if (!player.isSleeping()) {
-            plugin.getLogger().log(Level.FINER, player.getName() + " is not sleeping.");
+            plugin.getLogger().log(Level.FINER, "{0} is not sleeping.", player.getName());
             return;
         }
 
-        if (configuration.getIgnoredPlayers().contains(player.getName())) {
-            plugin.getLogger().log(Level.FINER, player.getName() + " is being ignored.");
+        if (resting.isIgnored(player)) {
+            plugin.getLogger().log(Level.FINER, "{0} is being ignored.", player.getName());
+            return;
+        }
+
+        if (resting.isResting(player)) {
             return;
         }
 
         var playerWorld = player.getWorld();
+        var necessaryToSkip = resting.getTotalNecessaryToSkip(playerWorld);
+        var previousCount = resting.getRestingCount(playerWorld);
+        var newCount = resting.getRestingCountIfResting(player);
 
-        actualPlayersResting.put(playerWorld, actualPlayersResting.getOrDefault(playerWorld, 0) + 1);
+        var event = new SleeperRestCountChangeEvent(player, previousCount, newCount, necessaryToSkip);
+        Bukkit.getPluginManager().callEvent(event);
 
-        var necessaryToSkip = resting.getTotalNecessaryToSkip(playerWorld);
+        if (event.isCancelled()) {
+            return;
+        }
 
-        resting.executeCommand(configuration.getRestMessage()
-                .replace("{playerName}", player.getName())
-                .replace("{actual}", String.valueOf(actualPlayersResting.get(playerWorld)))
-                .replace("{necessary}", String.valueOf(necessaryToSkip)));
+        resting.addRestingPlayer(player);
 
-        if (actualPlayersResting.get(playerWorld) >= necessaryToSkip) {
-            if (!resting.skipNight(playerWorld, false)) {
-                resting.executeCommand(configuration.getCannotSkipNightMessage());
-            }
+        if (!configuration.getRestMessage().isBlank()) {
+            resting.executeCommand(configuration.getRestMessage()
+                    .replace("{playerName}", player.getName())
+                    .replace("{actual}", String.valueOf(resting.getNetworkSkipCount(playerWorld)))
+                    .replace("{necessary}", String.valueOf(resting.getNetworkNecessaryToSkip(playerWorld))));
+        }
+
+        if (resting.isThresholdReached(playerWorld)) {
+            resting.skipNight(playerWorld, false, player);
         }
     }
 
@@ -123,15 +184,30 @@ public final class BedListener implements Listener {
      * Stop Resting
      *
      * <p>
-     * Listens for a PlayerBedLeaveEvent and removes one player to the counter {@link BedListener#actualPlayersResting}
+     * Listens for a PlayerBedLeaveEvent and stops counting the player as resting in {@link Resting}.
+     * A {@link SleeperRestCountChangeEvent} is called if the player was counted.
      *
      * @param event the PlayerBedLeaveEvent that occurred
      */
     @EventHandler
     public void stopResting(PlayerBedLeaveEvent event) {
-        var playerWorld = event.getPlayer().getWorld();
+        var player = event.getPlayer();
+
+        resting.stopResting(player.getWorld(), player);
+    }
 
-        actualPlayersResting.put(playerWorld, actualPlayersResting.get(playerWorld) - 1);
+    /**
+     * <h1>
+     * Forget Player
+     *
+     * <p>
+     * Listens for a PlayerQuitEvent and removes the rate limit bucket of the player.
+     *
+     * @param event the PlayerQuitEvent that occurred
+     */
+    @EventHandler
+    public void forgetPlayer(PlayerQuitEvent event) {
+        rateLimiter.forget(event.getPlayer().getUniqueId());
     }
 
 }
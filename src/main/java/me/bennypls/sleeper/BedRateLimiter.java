@@ -0,0 +1,142 @@
+package me.bennypls.sleeper;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h1>
+ * BedRateLimiter
+ *
+ * <p>
+ * A lock-free per-player token bucket that limits how often a player can trigger the resting process.
+ *
+ * <p>
+ * Each bucket is stored as a single theoretical arrival time, the moment where the bucket will be full again,
+ * updated with compare-and-set. A player can spend up to {@link Configuration#getBedSpamCapacity()} tokens
+ * at once and recovers one token every {@link Configuration#getBedSpamRefillTicks()} ticks.
+ */
+public final class BedRateLimiter {
+    /** The nanoseconds of one server tick. */
+    private static final long NANOS_PER_TICK = 50_000_000L;
+    /** The configuration with the capacity and refill interval of the buckets. */
+    private final Configuration configuration;
+    /** The theoretical arrival time of each player bucket, in {@link System#nanoTime()}. */
+    private final Map<UUID, AtomicLong> buckets = new ConcurrentHashMap<>();
+    /** The number of events rejected since the plugin was enabled. */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * <h1>
+     * BedRateLimiter Constructor
+     *
+     * <p>
+     * Constructs a new BedRateLimiter that reads the capacity and refill interval from the configuration.
+     *
+     * @param configuration the Configuration instance to use.
+     */
+    public BedRateLimiter(Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * <h1>
+     * tryAcquire
+     *
+     * <p>
+     * Takes a token from the bucket of the player.
+     *
+     * @param playerId the unique id of the player.
+     * @return true if the player had a token, false if the event must be suppressed.
+     */
+    public boolean tryAcquire(UUID playerId) {
+        long interval = getIntervalNanos();
+
+        if (interval == 0) {
+            return true;
+        }
+
+        long burst = interval * (configuration.getBedSpamCapacity() - 1);
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.computeIfAbsent(playerId, ignored -> new AtomicLong(now));
+
+        while (true) {
+            long arrival = bucket.get();
+            long start = arrival - now > 0 ? arrival : now;
+
+            if (start - now > burst) {
+                rejected.increment();
+                return false;
+            }
+
+            if (bucket.compareAndSet(arrival, start + interval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * <h1>
+     * getTicksUntilAllowed
+     *
+     * <p>
+     * Returns the ticks the player must wait until it has a token again.
+     *
+     * @param playerId the unique id of the player.
+     * @return the ticks to wait, at least 1.
+     */
+    public long getTicksUntilAllowed(UUID playerId) {
+        AtomicLong bucket = buckets.get(playerId);
+
+        if (bucket == null) {
+            return 1;
+        }
+
+        long interval = getIntervalNanos();
+        long burst = interval * (configuration.getBedSpamCapacity() - 1);
+        long wait = bucket.get() - burst - System.nanoTime();
+
+        return Math.max(1, (wait + NANOS_PER_TICK - 1) / NANOS_PER_TICK);
+    }
+
+    /**
+     * <h1>
+     * forget
+     *
+     * <p>
+     * Removes the bucket of the player, so the memory used doesn't grow with the players that ever joined.
+     *
+     * @param playerId the unique id of the player.
+     */
+    public void forget(UUID playerId) {
+        buckets.remove(playerId);
+    }
+
+    /**
+     * <h1>
+     * getRejected
+     *
+     * <p>
+     * Returns the number of events rejected since the plugin was enabled.
+     *
+     * @return the number of rejected events.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * <h1>
+     * getIntervalNanos
+     *
+     * <p>
+     * Returns the time to recover one token in nanoseconds.
+     *
+     * @return the refill interval, 0 if the limit is disabled.
+     */
+    private long getIntervalNanos() {
+        return configuration.getBedSpamRefillTicks() * NANOS_PER_TICK;
+    }
+}
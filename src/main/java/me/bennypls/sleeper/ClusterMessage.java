@@ -0,0 +1,132 @@
+package me.bennypls.sleeper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <h1>
+ * ClusterMessage
+ *
+ * <p>
+ * A batch of the changes of a server sent to the rest of the network, the resting count and eligible weight
+ * of the worlds that changed since the previous batch, and the worlds where the server skipped the night.
+ *
+ * <p>
+ * Full batches contain every world of the server and replace the previous state known of it.
+ *
+ * @param serverId the unique id of the server that sent the batch.
+ * @param sequence the sequence number of the batch, consecutive for each server.
+ * @param full     whether the batch contains every world of the server.
+ * @param worlds   the worlds that changed, or every world for full batches.
+ * @param skips    the skips of the worlds where the night was skipped.
+ */
+public record ClusterMessage(String serverId, long sequence, boolean full, List<WorldCount> worlds, List<Skip> skips) {
+    /** The version of the encoding, batches with another version are ignored. */
+    private static final byte VERSION = 2;
+
+    /**
+     * <h1>
+     * encode
+     *
+     * <p>
+     * Encodes the batch to bytes.
+     *
+     * @return the encoded batch.
+     */
+    public byte[] encode() {
+        var bytes = new ByteArrayOutputStream();
+
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            output.writeUTF(serverId);
+            output.writeLong(sequence);
+            output.writeBoolean(full);
+            output.writeShort(worlds.size());
+
+            for (WorldCount world : worlds) {
+                output.writeUTF(world.world());
+                output.writeShort(world.restingCount());
+                output.writeShort(world.eligibleWeight());
+            }
+
+            output.writeShort(skips.size());
+
+            for (Skip skip : skips) {
+                output.writeUTF(skip.world());
+                output.writeLong(skip.id());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode the cluster message.", e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * <h1>
+     * decode
+     *
+     * <p>
+     * Decodes a batch from bytes.
+     *
+     * @param bytes the encoded batch.
+     * @return the batch.
+     * @throws IOException if the bytes are not a batch of this version.
+     */
+    public static ClusterMessage decode(byte[] bytes) throws IOException {
+        try (var input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (input.readByte() != VERSION) {
+                throw new IOException("Unknown cluster message version.");
+            }
+
+            var serverId = input.readUTF();
+            var sequence = input.readLong();
+            var full = input.readBoolean();
+            var worlds = new ArrayList<WorldCount>();
+
+            for (int i = input.readUnsignedShort(); i > 0; i--) {
+                worlds.add(new WorldCount(input.readUTF(), input.readUnsignedShort(), input.readUnsignedShort()));
+            }
+
+            var skips = new ArrayList<Skip>();
+
+            for (int i = input.readUnsignedShort(); i > 0; i--) {
+                skips.add(new Skip(input.readUTF(), input.readLong()));
+            }
+
+            return new ClusterMessage(serverId, sequence, full, worlds, skips);
+        }
+    }
+
+    /**
+     * <h1>
+     * WorldCount
+     *
+     * <p>
+     * The resting count and eligible weight of a world of a server.
+     *
+     * @param world          the name of the world.
+     * @param restingCount   the resting count of the world.
+     * @param eligibleWeight the eligible weight of the world.
+     */
+    public record WorldCount(String world, int restingCount, int eligibleWeight) {
+    }
+
+    /**
+     * <h1>
+     * Skip
+     *
+     * <p>
+     * A night skipped by a server, identified by an id unique for the server that skipped it.
+     *
+     * @param world the name of the world.
+     * @param id    the id of the skip, increasing for each server.
+     */
+    public record Skip(String world, long id) {
+    }
+}
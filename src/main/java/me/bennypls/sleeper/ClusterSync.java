@@ -0,0 +1,387 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+/**
+ * <h1>
+ * ClusterSync
+ *
+ * <p>
+ * Synchronizes the resting counts and the skip decisions of the worlds with the other servers of the network
+ * through a {@link ClusterTransport}. Worlds are matched by name.
+ *
+ * <p>
+ * Every {@link Configuration#getClusterFlushTicks()} ticks, the received batches are applied and the worlds
+ * whose resting count or eligible weight changed are sent in a single batch. Only the worlds reported by
+ * {@link Resting} as changed since the last batch are read. A full batch with every world is
+ * sent every {@link ClusterSync#FULL_BATCH_EVERY} flushes to recover lost batches. Skips are sent immediately,
+ * and a skip received from another server skips the night of the same world in this server, once per skip
+ * and only while it is still the time to sleep in the world.
+ */
+public final class ClusterSync implements Listener, RestingObserver {
+    /** The number of flushes between each full batch. */
+    private static final int FULL_BATCH_EVERY = 20;
+    /** The JavaPlugin instance used by the synchronization. */
+    private final JavaPlugin plugin;
+    /** The Resting instance with the local resting counts. */
+    private final Resting resting;
+    /** The transport used to exchange the batches. */
+    private final ClusterTransport transport;
+    /** The unique id of this server. */
+    private final String serverId;
+    /** The ticks between each flush. */
+    private final int flushTicks;
+    /** The milliseconds without batches after which a server is forgotten. */
+    private final long timeoutMillis;
+    /** The received batches not applied yet, filled from any thread. */
+    private final Queue<byte[]> inbox = new ConcurrentLinkedQueue<>();
+    /** The state known of each other server, by server id. */
+    private final Map<String, RemoteServer> servers = new HashMap<>();
+    /** The last resting count and eligible weight sent of each world, packed in a long. */
+    private final Map<String, Long> lastSent = new HashMap<>();
+    /** The names of the worlds whose state changed since the last batch. */
+    private final Set<String> changedWorlds = new HashSet<>();
+    /** The skips of the worlds skipped since the last batch. */
+    private final List<ClusterMessage.Skip> pendingSkips = new ArrayList<>();
+    /** The last skip applied in each world, by world name, the id of the server and the id of the skip. */
+    private final Map<String, String> lastAppliedSkips = new HashMap<>();
+    /** The sequence number of the next batch, starting from the current time so it keeps growing after a restart. */
+    private long sequence = System.currentTimeMillis();
+    /** The id of the next skip, starting from the current time so it keeps growing after a restart. */
+    private long nextSkipId = System.currentTimeMillis();
+    /** The flushes since the last full batch. */
+    private int flushesSinceFull = FULL_BATCH_EVERY;
+    /** Whether a skip received from another server is being applied, to not send it back. */
+    private boolean applyingRemoteSkip;
+    /** The task of the periodic flush, null if it is not running. */
+    private BukkitTask flushTask;
+
+    /**
+     * <h1>
+     * ClusterSync Constructor
+     *
+     * <p>
+     * Constructs a new ClusterSync for this server.
+     *
+     * @param plugin        The JavaPlugin instance to use.
+     * @param resting       The Resting instance with the local resting counts.
+     * @param transport     The transport used to exchange the batches.
+     * @param configuration The Configuration instance with the cluster settings.
+     */
+    public ClusterSync(JavaPlugin plugin, Resting resting, ClusterTransport transport, Configuration configuration) {
+        this.plugin = plugin;
+        this.resting = resting;
+        this.transport = transport;
+        this.serverId = configuration.getClusterServerId();
+        this.flushTicks = configuration.getClusterFlushTicks();
+        this.timeoutMillis = configuration.getClusterTimeoutTicks() * 50L;
+    }
+
+    /**
+     * <h1>
+     * Start
+     *
+     * <p>
+     * Starts the transport and the periodic flush.
+     */
+    public void start() {
+        transport.start(inbox::add);
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, flushTicks, flushTicks);
+    }
+
+    /**
+     * <h1>
+     * Stop
+     *
+     * <p>
+     * Stops the periodic flush and the transport, and forgets the other servers.
+     */
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        transport.stop();
+        servers.clear();
+        changedWorlds.clear();
+        lastAppliedSkips.clear();
+    }
+
+    /**
+     * <h1>
+     * getRemoteSkipCount
+     *
+     * <p>
+     * Returns the sum of the skip counts of the world in the other servers, the resting players
+     * and the net votes to skip the night compared with the threshold.
+     *
+     * @param worldName the name of the world.
+     * @return the remote skip count.
+     */
+    public int getRemoteSkipCount(String worldName) {
+        int restingCount = 0;
+
+        for (RemoteServer server : servers.values()) {
+            var world = server.worlds.get(worldName);
+            restingCount += world == null ? 0 : world.restingCount();
+        }
+
+        return restingCount;
+    }
+
+    /**
+     * <h1>
+     * getRemoteEligibleWeight
+     *
+     * <p>
+     * Returns the sum of the eligible weights of the world in the other servers.
+     *
+     * @param worldName the name of the world.
+     * @return the remote eligible weight.
+     */
+    public int getRemoteEligibleWeight(String worldName) {
+        int eligibleWeight = 0;
+
+        for (RemoteServer server : servers.values()) {
+            var world = server.worlds.get(worldName);
+            eligibleWeight += world == null ? 0 : world.eligibleWeight();
+        }
+
+        return eligibleWeight;
+    }
+
+    /**
+     * <h1>
+     * On Counts Changed
+     *
+     * <p>
+     * Marks the world to be read on the next batch.
+     *
+     * @param world the world that changed.
+     */
+    @Override
+    public void onCountsChanged(World world) {
+        changedWorlds.add(world.getName());
+    }
+
+    /**
+     * <h1>
+     * On Night Skip
+     *
+     * <p>
+     * Sends the skip to the other servers immediately, unless it was received from another server.
+     *
+     * @param event the SleeperNightSkipEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onNightSkip(SleeperNightSkipEvent event) {
+        if (applyingRemoteSkip) {
+            return;
+        }
+
+        pendingSkips.add(new ClusterMessage.Skip(event.getWorld().getName(), nextSkipId++));
+        send(false);
+    }
+
+    /**
+     * <h1>
+     * Flush
+     *
+     * <p>
+     * Applies the received batches, forgets the servers that timed out, sends the changed worlds,
+     * notifies the worlds whose remote counts changed and skips the night of the worlds where the network
+     * threshold is reached after the received changes, even if nobody is resting in this server,
+     * only while it is the time to sleep in the world of this server.
+     */
+    private void flush() {
+        var remoteChangedWorlds = receive();
+        var expiration = System.currentTimeMillis() - timeoutMillis;
+
+        servers.values().removeIf(server -> {
+            if (server.lastSeen >= expiration) {
+                return false;
+            }
+
+            remoteChangedWorlds.addAll(server.worlds.keySet());
+            return true;
+        });
+
+        send(++flushesSinceFull >= FULL_BATCH_EVERY);
+
+        for (String worldName : remoteChangedWorlds) {
+            var world = Bukkit.getWorld(worldName);
+
+            if (world == null) {
+                continue;
+            }
+
+            resting.notifyCountsChanged(world);
+
+            if (Resting.isSleepTime(world) && !resting.isSkippingNight(world) && resting.isThresholdReached(world)) {
+                resting.skipNight(world, false, null);
+            }
+        }
+    }
+
+    /**
+     * <h1>
+     * Receive
+     *
+     * <p>
+     * Applies the received batches in order, including their skips.
+     *
+     * @return the names of the worlds whose remote counts changed.
+     */
+    private Set<String> receive() {
+        var remoteChangedWorlds = new HashSet<String>();
+        byte[] batch;
+
+        while ((batch = inbox.poll()) != null) {
+            ClusterMessage message;
+
+            try {
+                message = ClusterMessage.decode(batch);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.FINE, "Ignoring an invalid cluster batch.", e);
+                continue;
+            }
+
+            if (message.serverId().equals(serverId)) {
+                continue;
+            }
+
+            var server = servers.computeIfAbsent(message.serverId(), ignored -> new RemoteServer());
+
+            if (message.sequence() <= server.lastSequence) {
+                continue;
+            }
+
+            if (message.full()) {
+                remoteChangedWorlds.addAll(server.worlds.keySet());
+                server.worlds.clear();
+            }
+
+            for (ClusterMessage.WorldCount world : message.worlds()) {
+                server.worlds.put(world.world(), world);
+                remoteChangedWorlds.add(world.world());
+            }
+
+            server.lastSequence = message.sequence();
+            server.lastSeen = System.currentTimeMillis();
+
+            for (ClusterMessage.Skip skip : message.skips()) {
+                applyRemoteSkip(message.serverId(), skip);
+            }
+        }
+
+        return remoteChangedWorlds;
+    }
+
+    /**
+     * <h1>
+     * Apply Remote Skip
+     *
+     * <p>
+     * Skips the night of the world skipped by another server. A skip is applied only once, and only
+     * if the night is not being skipped already and it is still the time to sleep in the world,
+     * so a delayed or repeated skip never moves the time of a world whose night has ended.
+     *
+     * @param remoteServerId the id of the server that skipped the night.
+     * @param skip           the skip of the other server.
+     */
+    private void applyRemoteSkip(String remoteServerId, ClusterMessage.Skip skip) {
+        var world = Bukkit.getWorld(skip.world());
+        var key = remoteServerId + ":" + skip.id();
+
+        if (world == null || key.equals(lastAppliedSkips.get(skip.world()))
+            || resting.isSkippingNight(world) || !Resting.isSleepTime(world)) {
+            return;
+        }
+
+        lastAppliedSkips.put(skip.world(), key);
+        applyingRemoteSkip = true;
+
+        try {
+            resting.skipNight(world, false, null);
+        } finally {
+            applyingRemoteSkip = false;
+        }
+    }
+
+    /**
+     * <h1>
+     * Send
+     *
+     * <p>
+     * Sends a batch with the worlds that changed since the last batch, or every world if it is full,
+     * and the pending skips. Nothing is sent if there are no changes.
+     *
+     * @param full whether the batch must contain every world.
+     */
+    private void send(boolean full) {
+        var worlds = new ArrayList<ClusterMessage.WorldCount>();
+        var candidates = full ? Bukkit.getWorlds() : changedWorlds.stream().map(Bukkit::getWorld).toList();
+
+        changedWorlds.clear();
+
+        for (World world : candidates) {
+            if (world == null) {
+                continue;
+            }
+
+            int restingCount = resting.getSkipCount(world);
+            int eligibleWeight = resting.getEligibleWeight(world);
+            long packed = (long) restingCount << 32 | eligibleWeight;
+            Long previous = lastSent.put(world.getName(), packed);
+
+            if (full || previous == null || previous != packed) {
+                worlds.add(new ClusterMessage.WorldCount(world.getName(), restingCount, eligibleWeight));
+            }
+        }
+
+        if (!full && worlds.isEmpty() && pendingSkips.isEmpty()) {
+            return;
+        }
+
+        if (full) {
+            flushesSinceFull = 0;
+        }
+
+        transport.send(new ClusterMessage(serverId, sequence++, full, worlds, List.copyOf(pendingSkips)).encode());
+        pendingSkips.clear();
+    }
+
+    /**
+     * <h1>
+     * RemoteServer
+     *
+     * <p>
+     * The state known of another server of the network.
+     */
+    private static final class RemoteServer {
+        /** The resting count and eligible weight of each world of the server, by world name. */
+        private final Map<String, ClusterMessage.WorldCount> worlds = new HashMap<>();
+        /** The sequence number of the last batch applied. */
+        private long lastSequence = -1;
+        /** The time of the last batch received, in milliseconds. */
+        private long lastSeen;
+    }
+}
@@ -0,0 +1,48 @@
+package me.bennypls.sleeper;
+
+import java.util.function.Consumer;
+
+/**
+ * <h1>
+ * ClusterTransport
+ *
+ * <p>
+ * A way to exchange encoded {@link ClusterMessage} batches with the other servers of the network.
+ *
+ * <p>
+ * Implementations must deliver the batches of each server in the order they were sent,
+ * but may lose batches, lost state is recovered with the periodic full batches.
+ */
+public interface ClusterTransport {
+
+    /**
+     * <h1>
+     * start
+     *
+     * <p>
+     * Starts receiving the batches of the other servers.
+     *
+     * @param receiver called with each received batch, from any thread.
+     */
+    void start(Consumer<byte[]> receiver);
+
+    /**
+     * <h1>
+     * send
+     *
+     * <p>
+     * Sends a batch to the other servers, called from the main thread.
+     *
+     * @param batch the encoded batch.
+     */
+    void send(byte[] batch);
+
+    /**
+     * <h1>
+     * stop
+     *
+     * <p>
+     * Stops receiving batches and releases the resources of the transport.
+     */
+    void stop();
+}
@@ -1,9 +1,15 @@
 package me.bennypls.sleeper;
 
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 
 /**
  * <h1>
@@ -19,17 +25,15 @@ public final class Configuration {
     /** The JavaPlugin instance that this Configuration is associated with. */
     private final JavaPlugin plugin;
     /** The FileConfiguration instance that holds the configuration values. */
-    private final FileConfiguration configuration;
+    private FileConfiguration configuration;
     /** The list of players that should be ignored when calculating necessary players to sleep. */
     private List<String> ignoredPlayers;
     /** The percentage of players that need to sleep in order to skip the night. */
     private double percentageNecessaryToSleep;
     /** Whether the sleeping animation should be played when players sleep. */
     private boolean isAnimated;
-    /** The speed of the sleeping animation. */
-    private int animationSpeed;
-    /** The interval at which the sleeping animation should be played. */
-    private int animationInterval;
+    /** The validated frames of the sleeping animation, with its speed, interval and easing. */
+    private AnimationPlan animationPlan;
     /** The message that should be displayed to players when they sleep. */
     private String restMessage;
     /** The message that should be displayed to players when the night is skipped. */
@@ -38,6 +42,46 @@ public final class Configuration {
     private String cannotSkipNightMessage;
     /** Can skip when whether is not clear (Raining or Thundering) */
     private boolean canSkipWeather;
+    /** The number of bed entries a player can make at once before being rate limited. */
+    private int bedSpamCapacity;
+    /** The ticks a player needs to recover one bed entry, 0 disables the rate limit. */
+    private int bedSpamRefillTicks;
+    /** The ticks between each save of the sleep statistics. */
+    private int statisticsFlushTicks;
+    /** Whether the resting counts are shown in a boss bar. */
+    private boolean bossBarEnabled;
+    /** The title of the boss bar while players are resting. */
+    private String bossBarTitle;
+    /** The title of the boss bar while the night is being skipped. */
+    private String bossBarSkipTitle;
+    /** The records written to the audit log. */
+    private AuditLevel auditLevel;
+    /** One of every how many rest and leave records is written to the audit log. */
+    private int auditSampleRate;
+    /** The size in bytes after which the audit file is rotated. */
+    private long auditMaxFileBytes;
+    /** The number of rotated audit files kept. */
+    private int auditMaxFiles;
+    /** How resting players make the night pass. */
+    private SkipMode skipMode;
+    /** The extra speed of the time when every eligible player is resting, in the accelerate skip mode. */
+    private double accelerationFactor;
+    /** Whether the resting counts and skips are synchronized with the other servers of the network. */
+    private boolean clusterEnabled;
+    /** The unique id of this server in the network. */
+    private String clusterServerId;
+    /** The name of the transport used to synchronize with the other servers. */
+    private String clusterTransport;
+    /** The directory shared by the servers for the file transport. */
+    private String clusterDirectory;
+    /** The ticks between each synchronization with the other servers. */
+    private int clusterFlushTicks;
+    /** The ticks without news after which another server is forgotten. */
+    private int clusterTimeoutTicks;
+    /** The threshold policy used by the worlds without a specific policy. */
+    private ThresholdPolicy thresholdPolicy;
+    /** The threshold policy of each world with a specific policy, by world name. */
+    private Map<String, ThresholdPolicy> worldThresholdPolicies;
     /**
      * <h1>
      * Configuration Constructor
@@ -60,10 +104,16 @@ public final class Configuration {
      * Reload
      *
      * <p>
-     * Reloads the configuration values from the configuration file.
+     * Reads the configuration file again from the disk and reloads the configuration values.
+     * Invalid animation settings are rejected and the previous ones are kept.
+     *
+     * @return true if the configuration was reloaded without errors, false otherwise.
      */
-    public void reload() {
-        loadConfiguration();
+    public boolean reload() {
+        plugin.reloadConfig();
+        configuration = plugin.getConfig();
+
+        return loadConfiguration();
     }
 
     /**
@@ -72,17 +122,205 @@ public final class Configuration {
      *
      * <p>
      * Loads the configuration values from the configuration file.
+     *
+     * @return true if the animation settings are valid, false otherwise.
      */
-    private void loadConfiguration() {
+    private boolean loadConfiguration() {
         percentageNecessaryToSleep = configuration.getDouble("percentage-necessary-to-sleep", 0.25);
         ignoredPlayers = configuration.getStringList("ignored-players");
         canSkipWeather = configuration.getBoolean("can-skip-weather", true);
         isAnimated = configuration.getBoolean("is-animated", true);
-        animationSpeed = configuration.getInt("animation-speed", 125);
-        animationInterval = configuration.getInt("animation-interval", 1);
-        restMessage = configuration.getString("rest-message", "title @a actionbar {\"text\":\"{actual} / {necessary} Players to skip night.\"}");
+        restMessage = configuration.getString("rest-message", "");
         skipNightMessage = configuration.getString("skip-night-message", "say Players skipped the night");
         cannotSkipNightMessage = configuration.getString("cannot-skip-night-message", "say Cannot skip the night");
+        bedSpamCapacity = Math.max(1, configuration.getInt("bed-spam-capacity", 3));
+        bedSpamRefillTicks = Math.max(0, configuration.getInt("bed-spam-refill-ticks", 20));
+        statisticsFlushTicks = Math.max(20, configuration.getInt("statistics-flush-ticks", 6000));
+        bossBarEnabled = configuration.getBoolean("boss-bar", true);
+        bossBarTitle = configuration.getString("boss-bar-title", "{actual} / {necessary} Players to skip night.");
+        bossBarSkipTitle = configuration.getString("boss-bar-skip-title", "Skipping the night...");
+        auditSampleRate = Math.max(1, configuration.getInt("audit-sample-rate", 1));
+        auditMaxFileBytes = Math.max(1, configuration.getLong("audit-max-file-kb", 1024)) * 1024;
+        auditMaxFiles = Math.max(1, configuration.getInt("audit-max-files", 5));
+        loadAuditLevel();
+        accelerationFactor = Math.max(0, configuration.getDouble("acceleration-factor", 10));
+        loadSkipMode();
+        clusterEnabled = configuration.getBoolean("cluster-enabled", false);
+        clusterServerId = configuration.getString("cluster-server-id", "");
+        clusterTransport = configuration.getString("cluster-transport", "file");
+        clusterDirectory = configuration.getString("cluster-directory", "../sleeper-cluster");
+        clusterFlushTicks = Math.max(1, configuration.getInt("cluster-flush-ticks", 10));
+        clusterTimeoutTicks = Math.max(clusterFlushTicks, configuration.getInt("cluster-timeout-ticks", 600));
+        loadThresholdPolicies();
+
+        return loadAnimationPlan();
+    }
+
+    /**
+     * <h1>
+     * Load Skip Mode
+     *
+     * <p>
+     * Loads how resting players make the night pass, if the mode is unknown the threshold mode is used.
+     */
+    private void loadSkipMode() {
+        var name = configuration.getString("skip-mode", "threshold");
+
+        try {
+            skipMode = SkipMode.fromName(name);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Unknown skip mode - " + name + " - using threshold instead.");
+            skipMode = SkipMode.THRESHOLD;
+        }
+    }
+
+    /**
+     * <h1>
+     * Load Audit Level
+     *
+     * <p>
+     * Loads the records written to the audit log, if the level is unknown the decisions are recorded.
+     */
+    private void loadAuditLevel() {
+        var name = configuration.getString("audit-level", "decisions");
+
+        try {
+            auditLevel = AuditLevel.fromName(name);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Unknown audit level - " + name + " - using decisions instead.");
+            auditLevel = AuditLevel.DECISIONS;
+        }
+    }
+
+    /**
+     * <h1>
+     * Load Animation Plan
+     *
+     * <p>
+     * Validates the animation settings and compiles the frames of the animation.
+     * If the settings are invalid the previous plan is kept, or the default one on the first load.
+     *
+     * @return true if the animation settings are valid, false otherwise.
+     */
+    private boolean loadAnimationPlan() {
+        try {
+            animationPlan = new AnimationPlan(
+                configuration.getInt("animation-speed", 125),
+                configuration.getInt("animation-interval", 1),
+                Easing.fromName(configuration.getString("animation-easing", "linear"))
+            );
+            return true;
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().severe("Invalid animation settings, " + e.getMessage());
+
+            if (animationPlan == null) {
+                plugin.getLogger().severe("Using the default animation settings.");
+                animationPlan = new AnimationPlan(125, 1, Easing.LINEAR);
+            } else {
+                plugin.getLogger().severe("Keeping the previous animation settings.");
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * <h1>
+     * Load Threshold Policies
+     *
+     * <p>
+     * Loads the default threshold policy and the threshold policies of each world from the configuration file.
+     */
+    private void loadThresholdPolicies() {
+        thresholdPolicy = createThresholdPolicy(configuration.getString("threshold-policy", "percentage"));
+        worldThresholdPolicies = new HashMap<>();
+
+        var worldsSection = configuration.getConfigurationSection("world-threshold-policies");
+
+        if (worldsSection == null) {
+            return;
+        }
+
+        for (String worldName : worldsSection.getKeys(false)) {
+            worldThresholdPolicies.put(worldName, createThresholdPolicy(worldsSection.getString(worldName)));
+        }
+    }
+
+    /**
+     * <h1>
+     * Create Threshold Policy
+     *
+     * <p>
+     * Creates the threshold policy with the given name using the values of the configuration file.
+     * Unknown names fall back to the percentage policy.
+     *
+     * @param name the name of the policy.
+     * @return the threshold policy.
+     */
+    private ThresholdPolicy createThresholdPolicy(String name) {
+        switch (String.valueOf(name).toLowerCase()) {
+            case "percentage" -> {
+                return new PercentageThresholdPolicy(percentageNecessaryToSleep);
+            }
+
+            case "fixed" -> {
+                return new FixedThresholdPolicy(configuration.getInt("fixed-necessary-to-sleep", 1));
+            }
+
+            case "weighted" -> {
+                var weightedPermissions = new HashMap<String, Integer>();
+                var section = configuration.getConfigurationSection("weighted-permissions");
+
+                if (section != null) {
+                    for (String permission : section.getKeys(false)) {
+                        weightedPermissions.put(permission, section.getInt(permission, 1));
+                    }
+                }
+
+                return new WeightedThresholdPolicy(percentageNecessaryToSleep, weightedPermissions);
+            }
+
+            case "tiered" -> {
+                return new TieredThresholdPolicy(loadTiers(configuration.getConfigurationSection("tiered-percentages")), percentageNecessaryToSleep);
+            }
+
+            case "majority" -> {
+                return new MajorityThresholdPolicy();
+            }
+
+            default -> {
+                plugin.getLogger().warning("Unknown threshold policy - " + name + " - using percentage instead.");
+                return new PercentageThresholdPolicy(percentageNecessaryToSleep);
+            }
+        }
+    }
+
+    /**
+     * <h1>
+     * Load Tiers
+     *
+     * <p>
+     * Loads the percentage of each population tier, ignoring the tiers that are not a number.
+     *
+     * @param section the configuration section with the minimum population as keys and the percentage as values.
+     * @return the percentage by the minimum population of each tier.
+     */
+    private TreeMap<Integer, Double> loadTiers(ConfigurationSection section) {
+        var tiers = new TreeMap<Integer, Double>();
+
+        if (section == null) {
+            return tiers;
+        }
+
+        for (String minimumPlayers : section.getKeys(false)) {
+            try {
+                tiers.put(Integer.parseInt(minimumPlayers), section.getDouble(minimumPlayers));
+            } catch (NumberFormatException e) {
+                plugin.getLogger().warning("The tier - " + minimumPlayers + " - is not a number of players.");
+            }
+        }
+
+        return tiers;
     }
 
     /**
@@ -103,7 +341,8 @@ public final class Configuration {
      * addIgnoredPlayer
      *
      * <p>
-     * Adds a player to the list of ignored players.
+     * Adds a player to the list of ignored players and saves the configuration file, so the change
+     * is kept when the configuration is reloaded.
      *
      * @param playerName The name of the player to add.
      * @return True if the player was added successfully, false otherwise.
@@ -117,6 +356,7 @@ public final class Configuration {
         plugin.getLogger().info("The player - " + playerName + " - has been added to the ignored list.");
         ignoredPlayers.add(playerName);
         configuration.set("ignored-players", ignoredPlayers);
+        plugin.saveConfig();
         return true;
     }
 
@@ -125,7 +365,8 @@ public final class Configuration {
      * removeIgnoredPlayer
      *
      * <p>
-     * Removes a player from the ignored list.
+     * Removes a player from the ignored list and saves the configuration file, so the change
+     * is kept when the configuration is reloaded.
      *
      * @param playerName the name of the player to remove from the ignored list.
      * @return true if the player was removed successfully, false if the player was not in the ignored list.
@@ -139,6 +380,7 @@ public final class Configuration {
         plugin.getLogger().info("The player - " + playerName + " - has been removed from the ignored list.");
         ignoredPlayers.remove(playerName);
         configuration.set("ignored-players", ignoredPlayers);
+        plugin.saveConfig();
         return true;
     }
 
@@ -155,6 +397,258 @@ public final class Configuration {
     }
 
 
+    /**
+     * <h1>
+     * getThresholdPolicy
+     * <p>
+     * Returns the threshold policy of the given world, or the default policy if it has none.
+     *
+     * @param world the world to get the policy of.
+     * @return the threshold policy of the world.
+     */
+    public ThresholdPolicy getThresholdPolicy(World world) {
+        return worldThresholdPolicies.getOrDefault(world.getName(), thresholdPolicy);
+    }
+
+    /**
+     * <h1>
+     * getBedSpamCapacity
+     *
+     * <p>
+     * Returns the number of bed entries a player can make at once before being rate limited.
+     *
+     * @return bedSpamCapacity the burst of bed entries, at least 1.
+     */
+    public int getBedSpamCapacity() {
+        return bedSpamCapacity;
+    }
+
+    /**
+     * <h1>
+     * getBedSpamRefillTicks
+     *
+     * <p>
+     * Returns the ticks a player needs to recover one bed entry.
+     *
+     * @return bedSpamRefillTicks the ticks to recover one bed entry, 0 if the rate limit is disabled.
+     */
+    public int getBedSpamRefillTicks() {
+        return bedSpamRefillTicks;
+    }
+
+    /**
+     * <h1>
+     * getStatisticsFlushTicks
+     *
+     * <p>
+     * Returns the ticks between each save of the sleep statistics.
+     *
+     * @return statisticsFlushTicks the ticks between saves, at least 20.
+     */
+    public int getStatisticsFlushTicks() {
+        return statisticsFlushTicks;
+    }
+
+    /**
+     * <h1>
+     * isBossBarEnabled
+     *
+     * <p>
+     * Returns whether the resting counts and the progress to sunrise are shown in a boss bar.
+     *
+     * @return bossBarEnabled true if the boss bar is enabled, false otherwise.
+     */
+    public boolean isBossBarEnabled() {
+        return bossBarEnabled;
+    }
+
+    /**
+     * <h1>
+     * getBossBarTitle
+     *
+     * <p>
+     * Returns the title of the boss bar while players are resting, with the "{actual}" and "{necessary}" variables.
+     *
+     * @return bossBarTitle the title of the boss bar.
+     */
+    public String getBossBarTitle() {
+        return bossBarTitle;
+    }
+
+    /**
+     * <h1>
+     * getBossBarSkipTitle
+     *
+     * <p>
+     * Returns the title of the boss bar while the night is being skipped.
+     *
+     * @return bossBarSkipTitle the title of the boss bar.
+     */
+    public String getBossBarSkipTitle() {
+        return bossBarSkipTitle;
+    }
+
+    /**
+     * <h1>
+     * getAuditLevel
+     *
+     * <p>
+     * Returns the records written to the audit log.
+     *
+     * @return auditLevel the audit level.
+     */
+    public AuditLevel getAuditLevel() {
+        return auditLevel;
+    }
+
+    /**
+     * <h1>
+     * getAuditSampleRate
+     *
+     * <p>
+     * Returns one of every how many rest and leave records is written to the audit log.
+     *
+     * @return auditSampleRate the sample rate, at least 1.
+     */
+    public int getAuditSampleRate() {
+        return auditSampleRate;
+    }
+
+    /**
+     * <h1>
+     * getAuditMaxFileBytes
+     *
+     * <p>
+     * Returns the size in bytes after which the audit file is rotated.
+     *
+     * @return auditMaxFileBytes the maximum size of an audit file.
+     */
+    public long getAuditMaxFileBytes() {
+        return auditMaxFileBytes;
+    }
+
+    /**
+     * <h1>
+     * getAuditMaxFiles
+     *
+     * <p>
+     * Returns the number of rotated audit files kept, the older ones are deleted.
+     *
+     * @return auditMaxFiles the number of rotated audit files, at least 1.
+     */
+    public int getAuditMaxFiles() {
+        return auditMaxFiles;
+    }
+
+    /**
+     * <h1>
+     * getSkipMode
+     *
+     * <p>
+     * Returns how resting players make the night pass.
+     *
+     * @return skipMode the skip mode.
+     */
+    public SkipMode getSkipMode() {
+        return skipMode;
+    }
+
+    /**
+     * <h1>
+     * getAccelerationFactor
+     *
+     * <p>
+     * Returns the extra ticks the time advances each tick for each fraction of the eligible players resting,
+     * in the accelerate skip mode. With a factor of 10, 10% of the players resting make the night pass 2 times faster.
+     *
+     * @return accelerationFactor the acceleration factor, at least 0.
+     */
+    public double getAccelerationFactor() {
+        return accelerationFactor;
+    }
+
+    /**
+     * <h1>
+     * isClusterEnabled
+     *
+     * <p>
+     * Returns whether the resting counts and skips are synchronized with the other servers of the network.
+     *
+     * @return clusterEnabled true if cluster mode is enabled, false otherwise.
+     */
+    public boolean isClusterEnabled() {
+        return clusterEnabled;
+    }
+
+    /**
+     * <h1>
+     * getClusterServerId
+     *
+     * <p>
+     * Returns the unique id of this server in the network, a random one is generated if it is not configured.
+     *
+     * @return clusterServerId the unique id of this server.
+     */
+    public String getClusterServerId() {
+        if (clusterServerId == null || clusterServerId.isBlank()) {
+            clusterServerId = UUID.randomUUID().toString();
+        }
+
+        return clusterServerId;
+    }
+
+    /**
+     * <h1>
+     * getClusterTransport
+     *
+     * <p>
+     * Returns the name of the transport used to synchronize with the other servers, "file" or "plugin-message".
+     *
+     * @return clusterTransport the name of the transport.
+     */
+    public String getClusterTransport() {
+        return clusterTransport;
+    }
+
+    /**
+     * <h1>
+     * getClusterDirectory
+     *
+     * <p>
+     * Returns the directory shared by the servers for the file transport, relative to the server folder.
+     *
+     * @return clusterDirectory the shared directory.
+     */
+    public String getClusterDirectory() {
+        return clusterDirectory;
+    }
+
+    /**
+     * <h1>
+     * getClusterFlushTicks
+     *
+     * <p>
+     * Returns the ticks between each synchronization with the other servers.
+     *
+     * @return clusterFlushTicks the ticks between synchronizations, at least 1.
+     */
+    public int getClusterFlushTicks() {
+        return clusterFlushTicks;
+    }
+
+    /**
+     * <h1>
+     * getClusterTimeoutTicks
+     *
+     * <p>
+     * Returns the ticks without news after which another server is forgotten.
+     *
+     * @return clusterTimeoutTicks the timeout of the other servers.
+     */
+    public int getClusterTimeoutTicks() {
+        return clusterTimeoutTicks;
+    }
+
     /**
      * <h1>
      * isAnimated
@@ -178,7 +672,7 @@ public final class Configuration {
      * @return animationSpeed the speed of the animation
      */
     public int getAnimationSpeed() {
-        return animationSpeed;
+        return animationPlan.getSpeed();
     }
 
     /**
@@ -191,7 +685,20 @@ public final class Configuration {
      * @return animationInterval the interval between animation frames
      */
     public int getAnimationInterval() {
-        return animationInterval;
+        return animationPlan.getInterval();
+    }
+
+    /**
+     * <h1>
+     * getAnimationPlan
+     *
+     * <p>
+     * Returns the validated frames of the animation
+     *
+     * @return animationPlan the frames of the animation
+     */
+    public AnimationPlan getAnimationPlan() {
+        return animationPlan;
     }
 
     /**
@@ -0,0 +1,73 @@
+package me.bennypls.sleeper;
+
+import java.util.Locale;
+
+/**
+ * <h1>
+ * Easing
+ *
+ * <p>
+ * The easing curves available for the skip-night animation, mapping the elapsed fraction
+ * of the animation to the fraction of the time already advanced.
+ */
+public enum Easing {
+    /** Constant speed. */
+    LINEAR {
+        @Override
+        public double apply(double t) {
+            return t;
+        }
+    },
+    /** Starts slow and accelerates. */
+    EASE_IN {
+        @Override
+        public double apply(double t) {
+            return t * t;
+        }
+    },
+    /** Starts fast and decelerates. */
+    EASE_OUT {
+        @Override
+        public double apply(double t) {
+            return t * (2 - t);
+        }
+    },
+    /** Starts slow, accelerates and decelerates at the end. */
+    SMOOTHSTEP {
+        @Override
+        public double apply(double t) {
+            return t * t * (3 - 2 * t);
+        }
+    };
+
+    /**
+     * <h1>
+     * apply
+     *
+     * <p>
+     * Returns the fraction of the time advanced for the given fraction of the animation elapsed.
+     *
+     * @param t the fraction of the animation elapsed, from 0 to 1.
+     * @return the fraction of the time advanced, from 0 to 1.
+     */
+    public abstract double apply(double t);
+
+    /**
+     * <h1>
+     * fromName
+     *
+     * <p>
+     * Returns the easing with the given configuration name, like "ease-in".
+     *
+     * @param name the configuration name of the easing.
+     * @return the easing with that name.
+     * @throws IllegalArgumentException if there is no easing with that name.
+     */
+    public static Easing fromName(String name) {
+        try {
+            return valueOf(String.valueOf(name).trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown animation easing - " + name + " -.", e);
+        }
+    }
+}
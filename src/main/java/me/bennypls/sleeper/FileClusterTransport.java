@@ -0,0 +1,202 @@
+package me.bennypls.sleeper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <h1>
+ * FileClusterTransport
+ *
+ * <p>
+ * A {@link ClusterTransport} through a directory shared by the servers, for servers on the same machine
+ * or for testing cluster mode locally.
+ *
+ * <p>
+ * Each batch is written to its own file named after the server and a counter, and the files of the
+ * other servers are read in counter order. All the file operations run on a single background thread,
+ * and the files older than the timeout are ignored and deleted by their server.
+ */
+public final class FileClusterTransport implements ClusterTransport {
+    /** The extension of the batch files. */
+    private static final String EXTENSION = ".msg";
+    /** The logger to report the file errors. */
+    private final Logger logger;
+    /** The directory shared by the servers. */
+    private final File directory;
+    /** The unique id of this server. */
+    private final String serverId;
+    /** The milliseconds between each read of the directory. */
+    private final long pollMillis;
+    /** The milliseconds after which a batch file is ignored and deleted. */
+    private final long timeoutMillis;
+    /** The last counter read of each other server. */
+    private final Map<String, Long> lastRead = new HashMap<>();
+    /** The background thread of the file operations, null if the transport is stopped. */
+    private ScheduledExecutorService executor;
+    /** The counter of the next batch sent by this server. */
+    private long counter;
+
+    /**
+     * <h1>
+     * FileClusterTransport Constructor
+     *
+     * <p>
+     * Constructs a new FileClusterTransport in the given directory.
+     *
+     * @param logger        the logger to report the file errors.
+     * @param directory     the directory shared by the servers.
+     * @param serverId      the unique id of this server.
+     * @param pollMillis    the milliseconds between each read of the directory.
+     * @param timeoutMillis the milliseconds after which a batch file is ignored and deleted.
+     */
+    public FileClusterTransport(Logger logger, File directory, String serverId, long pollMillis, long timeoutMillis) {
+        this.logger = logger;
+        this.directory = directory;
+        this.serverId = serverId;
+        this.pollMillis = pollMillis;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            logger.warning("Could not create the cluster directory - " + directory + " -.");
+        }
+
+        counter = System.currentTimeMillis();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "Sleeper Cluster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> poll(receiver), pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void send(byte[] batch) {
+        if (executor == null) {
+            return;
+        }
+
+        var name = serverId + "." + counter++ + EXTENSION;
+
+        executor.execute(() -> {
+            try {
+                var temporary = new File(directory, name + ".tmp");
+                Files.write(temporary.toPath(), batch);
+                Files.move(temporary.toPath(), new File(directory, name).toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not write the cluster batch - " + name + " -.", e);
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * <h1>
+     * Poll
+     *
+     * <p>
+     * Reads the new batch files of the other servers in counter order, and deletes the expired files of this server.
+     *
+     * @param receiver called with each new batch.
+     */
+    private void poll(Consumer<byte[]> receiver) {
+        var files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+
+        if (files == null) {
+            return;
+        }
+
+        var expiration = System.currentTimeMillis() - timeoutMillis;
+        var batches = new ArrayList<BatchFile>();
+
+        for (File file : files) {
+            var batch = BatchFile.parse(file);
+
+            if (batch == null) {
+                continue;
+            }
+
+            if (file.lastModified() < expiration) {
+                if (batch.server().equals(serverId)) {
+                    file.delete();
+                }
+                continue;
+            }
+
+            if (!batch.server().equals(serverId) && batch.counter() > lastRead.getOrDefault(batch.server(), Long.MIN_VALUE)) {
+                batches.add(batch);
+            }
+        }
+
+        batches.sort(Comparator.comparingLong(BatchFile::counter));
+
+        for (BatchFile batch : batches) {
+            try {
+                receiver.accept(Files.readAllBytes(batch.file().toPath()));
+                lastRead.merge(batch.server(), batch.counter(), Math::max);
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Could not read the cluster batch - " + batch.file().getName() + " -.", e);
+            }
+        }
+    }
+
+    /**
+     * <h1>
+     * BatchFile
+     *
+     * <p>
+     * A batch file of the shared directory, named "server.counter.msg".
+     *
+     * @param server  the unique id of the server that wrote the file.
+     * @param counter the counter of the batch in its server.
+     * @param file    the batch file.
+     */
+    private record BatchFile(String server, long counter, File file) {
+
+        /**
+         * <h1>
+         * parse
+         *
+         * <p>
+         * Parses the server and counter of a batch file from its name.
+         *
+         * @param file the batch file.
+         * @return the parsed batch file, or null if the name is not valid.
+         */
+        private static BatchFile parse(File file) {
+            var name = file.getName().substring(0, file.getName().length() - EXTENSION.length());
+            var separator = name.lastIndexOf('.');
+
+            if (separator <= 0) {
+                return null;
+            }
+
+            try {
+                return new BatchFile(name.substring(0, separator), Long.parseLong(name.substring(separator + 1)), file);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package me.bennypls.sleeper;
+
+/**
+ * <h1>
+ * FixedThresholdPolicy
+ *
+ * <p>
+ * A fixed number of resting players is necessary to skip the night,
+ * capped to the number of eligible players so the night can always be skipped.
+ */
+public class FixedThresholdPolicy implements ThresholdPolicy {
+    /** The number of players necessary to skip the night. */
+    private final int necessary;
+
+    /**
+     * <h1>
+     * FixedThresholdPolicy Constructor
+     *
+     * <p>
+     * Constructs a new FixedThresholdPolicy with the given number of players.
+     *
+     * @param necessary the number of players necessary to skip the night.
+     */
+    public FixedThresholdPolicy(int necessary) {
+        this.necessary = necessary;
+    }
+
+    @Override
+    public int getNecessary(int eligibleWeight) {
+        return Math.max(1, Math.min(necessary, eligibleWeight));
+    }
+}
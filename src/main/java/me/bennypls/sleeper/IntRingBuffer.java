@@ -0,0 +1,96 @@
+package me.bennypls.sleeper;
+
+import java.util.Arrays;
+
+/**
+ * <h1>
+ * IntRingBuffer
+ *
+ * <p>
+ * A fixed-size buffer of the last values added, the oldest value is overwritten when it is full.
+ * The memory used never grows after it is created.
+ */
+final class IntRingBuffer {
+    /** The values of the buffer. */
+    private final int[] values;
+    /** The index where the next value is written. */
+    private int next;
+    /** The number of values in the buffer. */
+    private int size;
+
+    /**
+     * <h1>
+     * IntRingBuffer Constructor
+     *
+     * <p>
+     * Constructs a new empty IntRingBuffer with the given capacity.
+     *
+     * @param capacity the maximum number of values kept.
+     */
+    IntRingBuffer(int capacity) {
+        this.values = new int[capacity];
+    }
+
+    /**
+     * <h1>
+     * add
+     *
+     * <p>
+     * Adds a value, overwriting the oldest one if the buffer is full.
+     *
+     * @param value the value to add.
+     */
+    void add(int value) {
+        values[next] = value;
+        next = (next + 1) % values.length;
+        size = Math.min(size + 1, values.length);
+    }
+
+    /**
+     * <h1>
+     * size
+     *
+     * <p>
+     * Returns the number of values in the buffer.
+     *
+     * @return the number of values.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * <h1>
+     * toArray
+     *
+     * <p>
+     * Returns a copy of the values, from the oldest to the newest.
+     *
+     * @return the values of the buffer.
+     */
+    int[] toArray() {
+        var copy = new int[size];
+        int start = (next - size + values.length) % values.length;
+
+        for (int i = 0; i < size; i++) {
+            copy[i] = values[(start + i) % values.length];
+        }
+
+        return copy;
+    }
+
+    /**
+     * <h1>
+     * toSortedArray
+     *
+     * <p>
+     * Returns a sorted copy of the values.
+     *
+     * @return the values of the buffer in ascending order.
+     */
+    int[] toSortedArray() {
+        var copy = toArray();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
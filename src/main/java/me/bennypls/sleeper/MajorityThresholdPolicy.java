@@ -0,0 +1,27 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.GameMode;
+import org.bukkit.entity.Player;
+
+/**
+ * <h1>
+ * MajorityThresholdPolicy
+ *
+ * <p>
+ * More than half of the active players are necessary to skip the night.
+ * Only players in survival or adventure mode are considered active.
+ */
+public class MajorityThresholdPolicy implements ThresholdPolicy {
+
+    @Override
+    public int getWeight(Player player) {
+        var gameMode = player.getGameMode();
+
+        return gameMode == GameMode.SURVIVAL || gameMode == GameMode.ADVENTURE ? 1 : 0;
+    }
+
+    @Override
+    public int getNecessary(int eligibleWeight) {
+        return eligibleWeight / 2 + 1;
+    }
+}
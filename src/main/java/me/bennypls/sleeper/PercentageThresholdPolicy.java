@@ -0,0 +1,33 @@
+package me.bennypls.sleeper;
+
+/**
+ * <h1>
+ * PercentageThresholdPolicy
+ *
+ * <p>
+ * The default policy, a fixed percentage of the eligible players is necessary to skip the night.
+ */
+public class PercentageThresholdPolicy implements ThresholdPolicy {
+    /** The percentage of players that need to sleep in order to skip the night. */
+    private final double percentage;
+
+    /**
+     * <h1>
+     * PercentageThresholdPolicy Constructor
+     *
+     * <p>
+     * Constructs a new PercentageThresholdPolicy with the given percentage.
+     *
+     * @param percentage the percentage of players necessary to skip the night, from 0 to 1.
+     */
+    public PercentageThresholdPolicy(double percentage) {
+        this.percentage = percentage;
+    }
+
+    @Override
+    public int getNecessary(int eligibleWeight) {
+        double necessaryPlayersToSkip = eligibleWeight * percentage;
+
+        return necessaryPlayersToSkip <= 0 ? 1 : (int) Math.ceil(necessaryPlayersToSkip);
+    }
+}
@@ -0,0 +1,106 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * <h1>
+ * PluginMessageClusterTransport
+ *
+ * <p>
+ * A {@link ClusterTransport} through the plugin messaging channel of a BungeeCord compatible proxy,
+ * forwarding the batches to every other server of the network.
+ *
+ * <p>
+ * Plugin messages travel through a connected player, so batches are dropped while the server is empty.
+ * The periodic full batches recover the state when players join again.
+ */
+public final class PluginMessageClusterTransport implements ClusterTransport, PluginMessageListener {
+    /** The plugin messaging channel of the proxy. */
+    private static final String PROXY_CHANNEL = "BungeeCord";
+    /** The sub-channel forwarded by the proxy with the Sleeper batches. */
+    private static final String SUB_CHANNEL = "SleeperCluster";
+    /** The JavaPlugin instance that sends and receives the messages. */
+    private final JavaPlugin plugin;
+    /** Called with each received batch, null if the transport is stopped. */
+    private Consumer<byte[]> receiver;
+
+    /**
+     * <h1>
+     * PluginMessageClusterTransport Constructor
+     *
+     * <p>
+     * Constructs a new PluginMessageClusterTransport for the given plugin.
+     *
+     * @param plugin the JavaPlugin instance that sends and receives the messages.
+     */
+    public PluginMessageClusterTransport(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, PROXY_CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, PROXY_CHANNEL, this);
+    }
+
+    @Override
+    public void send(byte[] batch) {
+        var carrier = plugin.getServer().getOnlinePlayers().stream().findFirst().orElse(null);
+
+        if (carrier == null) {
+            return;
+        }
+
+        var bytes = new ByteArrayOutputStream();
+
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeUTF("Forward");
+            output.writeUTF("ALL");
+            output.writeUTF(SUB_CHANNEL);
+            output.writeShort(batch.length);
+            output.write(batch);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not encode the cluster plugin message.", e);
+            return;
+        }
+
+        carrier.sendPluginMessage(plugin, PROXY_CHANNEL, bytes.toByteArray());
+    }
+
+    @Override
+    public void stop() {
+        receiver = null;
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin);
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin);
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        if (!PROXY_CHANNEL.equals(channel) || receiver == null) {
+            return;
+        }
+
+        try (var input = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!SUB_CHANNEL.equals(input.readUTF())) {
+                return;
+            }
+
+            var batch = new byte[input.readUnsignedShort()];
+            input.readFully(batch);
+            receiver.accept(batch);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.FINE, "Could not decode the cluster plugin message.", e);
+        }
+    }
+}
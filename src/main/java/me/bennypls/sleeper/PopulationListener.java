@@ -0,0 +1,128 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * <h1>
+ * PopulationListener
+ *
+ * <p>
+ * This is a Bukkit event listener that listens for changes in the population of the worlds.
+ *
+ * <p>
+ * Invalidates the cached threshold of the affected worlds in {@link Resting}, so the threshold policy
+ * is only consulted when the eligible players change and not on every bed event.
+ *
+ * <p>
+ * Also refreshes the cached {@value Resting#IGNORE_PERMISSION} permission of the players when it can change.
+ */
+public final class PopulationListener implements Listener {
+    /** The JavaPlugin instance used by this listener. */
+    private final JavaPlugin plugin;
+    /** The Resting instance used by this listener. */
+    private final Resting resting;
+
+    /**
+     * <h1>
+     * PopulationListener Constructor
+     * <p>
+     * Constructs a new PopulationListener instance with the specified plugin and resting objects.
+     *
+     * @param plugin  The JavaPlugin instance to use.
+     * @param resting The Resting instance to use.
+     */
+    public PopulationListener(JavaPlugin plugin, Resting resting) {
+        this.plugin = plugin;
+        this.resting = resting;
+    }
+
+    /**
+     * <h1>
+     * On Join
+     * <p>
+     * Caches the ignore permission of the player and invalidates the threshold of the world where the player joined.
+     *
+     * @param event the PlayerJoinEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        resting.refreshIgnorePermission(event.getPlayer());
+        resting.invalidateThreshold(event.getPlayer().getWorld());
+    }
+
+    /**
+     * <h1>
+     * On Quit
+     * <p>
+     * Removes the player from the resting players and votes of its world, and forgets its ignore permission.
+     * Invalidates the threshold of the world where the player was, after one tick
+     * because the player is still in the world while the event is called.
+     *
+     * @param event the PlayerQuitEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        var world = event.getPlayer().getWorld();
+
+        resting.stopResting(world, event.getPlayer());
+        resting.removeVote(world, event.getPlayer().getUniqueId());
+        resting.forgetIgnorePermission(event.getPlayer().getUniqueId());
+        Bukkit.getScheduler().runTask(plugin, () -> resting.invalidateThreshold(world));
+    }
+
+    /**
+     * <h1>
+     * On Changed World
+     * <p>
+     * Removes the player from the resting players and votes of the world the player left.
+     * Invalidates the threshold of the world the player left and the world the player entered,
+     * and refreshes the ignore permission of the player, as permissions can depend on the world.
+     *
+     * @param event the PlayerChangedWorldEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        resting.stopResting(event.getFrom(), event.getPlayer());
+        resting.removeVote(event.getFrom(), event.getPlayer().getUniqueId());
+        resting.invalidateThreshold(event.getFrom());
+        resting.invalidateThreshold(event.getPlayer().getWorld());
+        resting.refreshIgnorePermission(event.getPlayer());
+    }
+
+    /**
+     * <h1>
+     * On Command Send
+     * <p>
+     * Refreshes the ignore permission and the weight of the player, the server sends the commands again
+     * to a player whenever its permissions are recalculated.
+     *
+     * @param event the PlayerCommandSendEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCommandSend(PlayerCommandSendEvent event) {
+        resting.refreshIgnorePermission(event.getPlayer());
+    }
+
+    /**
+     * <h1>
+     * On Game Mode Change
+     * <p>
+     * Invalidates the threshold of the world of the player, as policies can depend on the game mode.
+     *
+     * @param event the PlayerGameModeChangeEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onGameModeChange(PlayerGameModeChangeEvent event) {
+        var world = event.getPlayer().getWorld();
+        Bukkit.getScheduler().runTask(plugin, () -> resting.invalidateThreshold(world));
+    }
+}
@@ -2,13 +2,19 @@ package me.bennypls.sleeper;
 
 import org.bukkit.Bukkit;
 import org.bukkit.World;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * <h1>
@@ -19,8 +25,12 @@ import java.util.Random;
  *
  * <p>
  * It allows players to skip the night with not all the players asleep, and also provides an option for an animated transition to morning.
+ *
+ * <p>
+ * It keeps the per-world resting state and is registered as the {@link SleeperAPI} service.
+ * The {@link RestingObserver}s are notified when the state of a world changes.
  */
-public class Resting {
+public class Resting implements SleeperAPI {
     /** The plugin instance that this Resting instance is associated with. */
     private final JavaPlugin plugin;
     /** The configuration for this Resting instance. */
@@ -30,14 +40,24 @@ public class Resting {
      * calculate the time difference between the current time and sunrise time in order to determine
      * the different necessary intervals also determined the length of intervals by the animation speed.
      */
-    private static final long SUNRISE_TIME = 23850;
+    static final long SUNRISE_TIME = 23850;
     /**
      * The time at which nightfall occurs in Minecraft.This is a constant value that is used to
      * calculate the time to know if is night.
      */
-    private static final long NIGHTFALL_TIME = 13000;
-    /** A static variable to know if it is currently playing a skip-night Animation */
-    private static final Map<World, Boolean> isSkippingNight = new HashMap<>();
+    static final long NIGHTFALL_TIME = 13000;
+    /** The rate limiter of the bed entries of each player. */
+    private final BedRateLimiter bedRateLimiter;
+    /** The resting state of each world, created the first time a world is used. */
+    private final Map<World, WorldState> worldStates = new HashMap<>();
+    /** The synchronization with the other servers of the network, null if cluster mode is disabled. */
+    private ClusterSync cluster;
+    /** The permission that excludes a player from the resting players and the threshold. */
+    public static final String IGNORE_PERMISSION = "sleeper.ignore";
+    /** The unique ids of the online players with the ignore permission, the cached result of the permission checks. */
+    private final Set<UUID> permissionIgnored = new HashSet<>();
+    /** The observers notified when the state of a world changes. */
+    private final List<RestingObserver> observers = new ArrayList<>();
 
     /**
      * <h1>
@@ -52,6 +72,7 @@ public class Resting {
     public Resting(JavaPlugin plugin, Configuration configuration) {
         this.plugin = plugin;
         this.configuration = configuration;
+        this.bedRateLimiter = new BedRateLimiter(configuration);
     }
 
     /**
@@ -66,20 +87,41 @@ public class Resting {
      * <p>
      * Can be forcefully skip night if forced is true;
      *
-     * @param world the world to skip the night for.
-     * @param forced forcefully skip night ignoring conditions.
-     * @return true if the night was skipped, false otherwise.
+     * <p>
+     * Calls a {@link SleeperNightSkipEvent} before skipping, and a {@link SleeperSkipRefusedEvent}
+     * if the night is not skipped. The cannot-skip-night message is executed for refused skips
+     * that are not forced, unless the refusal event is cancelled.
+     *
+     * @param world     the world to skip the night for.
+     * @param forced    forcefully skip night ignoring conditions.
+     * @param initiator who triggered the skip, null if it was triggered by another server of the network.
+     * @return the reason for which the night was not skipped, or null if it was skipped.
      */
-    public boolean skipNight(World world, boolean forced) {
-        if (isSkippingNight.getOrDefault(world, false)) {
-            return false;
+    public SkipRefusalReason skipNight(World world, boolean forced, CommandSender initiator) {
+        var reason = getSkipRefusalReason(world, forced);
+
+        if (reason == null) {
+            var skipEvent = new SleeperNightSkipEvent(world, forced, initiator);
+            Bukkit.getPluginManager().callEvent(skipEvent);
+
+            if (skipEvent.isCancelled()) {
+                reason = SkipRefusalReason.CANCELLED;
+            }
         }
 
-        if (!canSkipNight(world) && forced) {
-            return false;
+        if (reason != null) {
+            var refusedEvent = new SleeperSkipRefusedEvent(world, reason, forced, initiator);
+            Bukkit.getPluginManager().callEvent(refusedEvent);
+
+            if (!refusedEvent.isCancelled() && !forced) {
+                executeCommand(configuration.getCannotSkipNightMessage());
+            }
+
+            return reason;
         }
 
         executeCommand(configuration.getSkipNightMessage());
+        getState(world).getVotes().clear();
 
         if (configuration.isAnimated()) {
             skipNightAnimation(world);
@@ -87,43 +129,50 @@ public class Resting {
             world.setTime(SUNRISE_TIME);
         }
 
-        return true;
+        notifyCountsChanged(world);
+        return null;
     }
 
     /**
      * <h1>
-     * Can Skip Night
+     * Get Skip Refusal Reason
      *
      * <p>
-     * Looks if can skip the night for the world if the conditions are met.
+     * Looks for the reason that prevents the night from being skipped in the given world.
      *
-     * @param world the world to look if it can skip the night.
-     * @return true if the night can be skipped, false otherwise.
+     * @param world  the world to skip the night for.
+     * @param forced forcefully skip night ignoring conditions.
+     * @return the reason of the refusal, or null if the night can be skipped.
      */
-    public boolean canSkipNight(World world) {
-        if (isNight(world) && isClear(world)) {
-            return true;
+    private SkipRefusalReason getSkipRefusalReason(World world, boolean forced) {
+        if (isSkippingNight(world)) {
+            return SkipRefusalReason.ALREADY_SKIPPING;
         }
 
-        if (isClear(world) && !(isNight(world))) {
-            return false;
+        if (forced && !canSkipNight(world)) {
+            return isClear(world) ? SkipRefusalReason.NOT_NIGHT : SkipRefusalReason.WEATHER;
         }
 
-        return configuration.canSkipWeather();
+        return null;
     }
 
     /**
      * <h1>
-     * isNight
+     * Can Skip Night
      *
      * <p>
-     * This is to know if in a world given is night time.
+     * Looks if can skip the night for the world if the conditions are met.
+     * With clear weather it must be night, during a thunderstorm the weather must be skippable.
      *
-     * @param world The world to know the time.
-     * @return true if is night, false otherwise.
+     * @param world the world to look if it can skip the night.
+     * @return true if the night can be skipped, false otherwise.
      */
-    private static boolean isNight(World world) {
-        return world.getTime() < NIGHTFALL_TIME;
+    public boolean canSkipNight(World world) {
+        if (isClear(world)) {
+            return isSleepTime(world, false);
+        }
+
+        return configuration.canSkipWeather();
     }
 
     /**
@@ -147,34 +196,241 @@ public class Resting {
      *
      * <p>
      * Plays an animation to skip the night for the given world. The animation consists of a series
-     * of time changes that gradually advance the time to sunrise. The speed and interval of the
+     * of time changes that gradually advance the time to sunrise. The speed, interval and easing of the
      * animation are determined by the configuration.
      *
+     * <p>
+     * The frames are taken from the {@link AnimationPlan} compiled with the configuration, and played
+     * by a single repeating task kept in the world state, so it can be cancelled when the world is released.
+     *
      * @param world the world for which to play the skip night animation.
      */
     public void skipNightAnimation(World world) {
-        var totalIntervals = Math.abs(world.getTime() - SUNRISE_TIME) / configuration.getAnimationSpeed();
-        isSkippingNight.put(world, true);
+        var state = getState(world);
+        var plan = configuration.getAnimationPlan();
+        var startTime = world.getTime();
+        var distance = Math.abs(startTime - SUNRISE_TIME);
+
+        state.setSkippingNight(true);
+        state.setAnimationTask(Bukkit.getScheduler().runTaskTimer(
+            plugin,
+            new SkipNightAnimation(world, state, startTime, distance, plan.getFrames(distance)),
+            0,
+            plan.getInterval()
+        ));
+    }
 
-        for (int i = 0; i < totalIntervals - 1; i++) {
-            Bukkit.getScheduler().runTaskLater(
-                plugin,
-                () -> world.setTime(world.getTime() + configuration.getAnimationSpeed()),
-                (long) configuration.getAnimationInterval() * i
-            );
+    /**
+     * <h1>
+     * finishSkipNight
+     *
+     * <p>
+     * Finishes the skip-night animation of the world, cancelling its task and clearing the weather
+     * if the configuration allows it.
+     *
+     * @param world the world where the animation is played.
+     * @param state the state of the world.
+     */
+    private void finishSkipNight(World world, WorldState state) {
+        var task = state.getAnimationTask();
+
+        if (task != null) {
+            task.cancel();
+            state.setAnimationTask(null);
         }
 
-        Bukkit.getScheduler().runTaskLater(
-            plugin,
-            () -> {
-                world.setTime(world.getTime() + configuration.getAnimationSpeed());
-                if (!isClear(world) && configuration.canSkipWeather()) {
-                    world.setClearWeatherDuration(new Random().nextInt(1200, 24000));
-                }
-                isSkippingNight.put(world, false);
-            },
-            (long) configuration.getAnimationInterval() * (totalIntervals - 1)
-        );
+        if (!isClear(world) && configuration.canSkipWeather()) {
+            world.setClearWeatherDuration(new Random().nextInt(1200, 24000));
+        }
+
+        state.setSkippingNight(false);
+    }
+
+    /**
+     * <h1>
+     * releaseWorld
+     *
+     * <p>
+     * Releases the state of the given world, must be called when the world is unloaded.
+     * A skip-night animation being played is fast-forwarded to sunrise.
+     *
+     * @param world the world to release.
+     */
+    public void releaseWorld(World world) {
+        var state = worldStates.remove(world);
+
+        if (state != null) {
+            stopAcceleration(state);
+        }
+
+        if (state != null && state.isSkippingNight()) {
+            world.setTime(SUNRISE_TIME);
+            finishSkipNight(world, state);
+        }
+    }
+
+    /**
+     * <h1>
+     * shutdown
+     *
+     * <p>
+     * Releases the state of every world, must be called when the plugin is disabled.
+     *
+     * @see Resting#releaseWorld
+     */
+    public void shutdown() {
+        for (World world : List.copyOf(worldStates.keySet())) {
+            releaseWorld(world);
+        }
+    }
+
+    /**
+     * <h1>
+     * SkipNightAnimation
+     *
+     * <p>
+     * A frame task of the skip-night animation, sets the time of the world to the start time plus
+     * the fraction of the distance of the current frame, and finishes the skip on the last frame.
+     */
+    private final class SkipNightAnimation implements Runnable {
+        /** The world where the animation is played. */
+        private final World world;
+        /** The state of the world. */
+        private final WorldState state;
+        /** The time of the world when the animation started. */
+        private final long startTime;
+        /** The ticks to advance during the animation. */
+        private final long distance;
+        /** The fixed-point fraction of the distance advanced after each frame. */
+        private final int[] frames;
+        /** The index of the next frame to play. */
+        private int frame;
+
+        /**
+         * <h1>
+         * SkipNightAnimation Constructor
+         *
+         * <p>
+         * Constructs a new SkipNightAnimation for the given world.
+         *
+         * @param world     the world where the animation is played.
+         * @param state     the state of the world.
+         * @param startTime the time of the world when the animation started.
+         * @param distance  the ticks to advance during the animation.
+         * @param frames    the frame table of the {@link AnimationPlan} for the distance.
+         */
+        private SkipNightAnimation(World world, WorldState state, long startTime, long distance, int[] frames) {
+            this.world = world;
+            this.state = state;
+            this.startTime = startTime;
+            this.distance = distance;
+            this.frames = frames;
+        }
+
+        @Override
+        public void run() {
+            world.setTime(startTime + distance * frames[frame++] / AnimationPlan.ONE);
+
+            if (frame >= frames.length) {
+                finishSkipNight(world, state);
+            }
+
+            observers.forEach(observer -> observer.onSkipProgress(world));
+        }
+    }
+
+    /**
+     * <h1>
+     * startAcceleration
+     *
+     * <p>
+     * Starts accelerating the time of the world if the skip mode is {@link SkipMode#ACCELERATE},
+     * it is night, players are resting in the network and the time is not already being accelerated
+     * or the night skipped.
+     *
+     * @param world the world whose counts changed.
+     */
+    private void startAcceleration(World world) {
+        if (configuration.getSkipMode() != SkipMode.ACCELERATE || !isSleepTime(world, false)) {
+            return;
+        }
+
+        var state = getState(world);
+
+        if (state.getAccelerationTask() != null || state.isSkippingNight() || getRestingFraction(world) <= 0) {
+            return;
+        }
+
+        state.setAccelerationRemainder(0);
+        state.setAccelerationTask(Bukkit.getScheduler().runTaskTimer(plugin, new Acceleration(world, state), 1, 1));
+    }
+
+    /**
+     * <h1>
+     * stopAcceleration
+     *
+     * <p>
+     * Stops accelerating the time of the world, if it is being accelerated.
+     *
+     * @param state the state of the world.
+     */
+    private void stopAcceleration(WorldState state) {
+        var task = state.getAccelerationTask();
+
+        if (task != null) {
+            task.cancel();
+            state.setAccelerationTask(null);
+        }
+    }
+
+    /**
+     * <h1>
+     * Acceleration
+     *
+     * <p>
+     * Advances the time of a world every tick, on top of the normal time, by the fraction of the eligible players
+     * resting multiplied by the acceleration factor. Stops by itself when nobody is resting, the night ends
+     * or the night is being skipped, so it only runs while players are resting.
+     */
+    private final class Acceleration implements Runnable {
+        /** The world where the time is accelerated. */
+        private final World world;
+        /** The state of the world. */
+        private final WorldState state;
+
+        /**
+         * <h1>
+         * Acceleration Constructor
+         *
+         * <p>
+         * Constructs a new Acceleration for the given world.
+         *
+         * @param world the world where the time is accelerated.
+         * @param state the state of the world.
+         */
+        private Acceleration(World world, WorldState state) {
+            this.world = world;
+            this.state = state;
+        }
+
+        @Override
+        public void run() {
+            var fraction = getRestingFraction(world);
+
+            if (fraction <= 0 || state.isSkippingNight() || !isSleepTime(world, false)
+                || configuration.getSkipMode() != SkipMode.ACCELERATE) {
+                stopAcceleration(state);
+                return;
+            }
+
+            var advance = state.getAccelerationRemainder() + fraction * configuration.getAccelerationFactor();
+            var ticks = (long) advance;
+            state.setAccelerationRemainder(advance - ticks);
+
+            if (ticks > 0) {
+                world.setTime(Math.min(SUNRISE_TIME, world.getTime() + ticks));
+            }
+        }
     }
 
     /**
@@ -184,22 +440,685 @@ public class Resting {
      * <p>
      * Determines the total number of players necessary for sleeping to be skipped for a given world.
      *
+     * <p>
+     * The value is cached and only recomputed with the threshold policy of the world after
+     * {@link Resting#invalidateThreshold} is called, when the population of the world changes.
+     *
      * @param world The world to calculate from.
      * @return the total number of players necessary for sleeping to be skipped
      */
     public int getTotalNecessaryToSkip(World world) {
+        var state = getState(world);
+
+        if (!state.isThresholdValid()) {
+            computeThreshold(world, state);
+        }
+
+        return state.getNecessaryToSkip();
+    }
+
+    /**
+     * <h1>
+     * computeThreshold
+     *
+     * <p>
+     * Computes the weight of the players of the world that are not ignored, the threshold to skip the night
+     * and the resting count with the threshold policy of the world, and caches them in the world state.
+     * The sleep votes are weighed again with the new weights.
+     *
+     * @param world The world to calculate from.
+     * @param state The state of the world.
+     */
+    private void computeThreshold(World world, WorldState state) {
+        ThresholdPolicy policy = configuration.getThresholdPolicy(world);
         Collection<? extends Player> players = world.getPlayers();
-        int totalPlayers = 0;
+        Map<UUID, Integer> weights = state.getWeights();
+        int totalWeight = 0;
+
+        weights.clear();
 
         for (Player player : players) {
-            if (!configuration.getIgnoredPlayers().contains(player.getName())) {
-                totalPlayers++;
+            if (!isIgnored(player)) {
+                int weight = policy.getWeight(player);
+                weights.put(player.getUniqueId(), weight);
+                totalWeight += weight;
+            }
+        }
+
+        int restingCount = 0;
+
+        for (UUID playerId : state.getRestingPlayers()) {
+            restingCount += weights.getOrDefault(playerId, 0);
+        }
+
+        state.getVotes().reweigh(weights);
+        state.setRestingCount(restingCount);
+        state.setEligibleWeight(totalWeight);
+        state.setNecessaryToSkip(Math.max(1, policy.getNecessary(totalWeight)));
+    }
+
+    /**
+     * <h1>
+     * getEligibleWeight
+     *
+     * <p>
+     * Returns the sum of the weights of the players of the world that count toward the threshold.
+     *
+     * @param world The world to calculate from.
+     * @return the eligible weight of the world.
+     */
+    public int getEligibleWeight(World world) {
+        getTotalNecessaryToSkip(world);
+        return getState(world).getEligibleWeight();
+    }
+
+    /**
+     * <h1>
+     * getNetworkSkipCount
+     *
+     * <p>
+     * Returns the count compared with the threshold of the world across every server of the network,
+     * or the local one if cluster mode is disabled.
+     *
+     * @param world The world to calculate from.
+     * @return the skip count of the network.
+     */
+    public int getNetworkSkipCount(World world) {
+        int skipCount = getSkipCount(world);
+
+        return cluster == null ? skipCount : skipCount + cluster.getRemoteSkipCount(world.getName());
+    }
+
+    /**
+     * <h1>
+     * getNetworkNecessaryToSkip
+     *
+     * <p>
+     * Returns the resting count necessary to skip the night in the world, computed by the threshold policy
+     * with the eligible players of every server of the network, or the local threshold if cluster mode is disabled.
+     *
+     * @param world The world to calculate from.
+     * @return the threshold of the network.
+     */
+    public int getNetworkNecessaryToSkip(World world) {
+        int necessaryToSkip = getTotalNecessaryToSkip(world);
+
+        if (cluster == null) {
+            return necessaryToSkip;
+        }
+
+        return Math.max(1, configuration.getThresholdPolicy(world).getNecessary(getNetworkEligibleWeight(world)));
+    }
+
+    /**
+     * <h1>
+     * getNetworkEligibleWeight
+     *
+     * <p>
+     * Returns the eligible weight of the world across every server of the network,
+     * or the local one if cluster mode is disabled.
+     *
+     * @param world The world to calculate from.
+     * @return the eligible weight of the network.
+     */
+    public int getNetworkEligibleWeight(World world) {
+        int eligibleWeight = getEligibleWeight(world);
+
+        return cluster == null ? eligibleWeight : eligibleWeight + cluster.getRemoteEligibleWeight(world.getName());
+    }
+
+    /**
+     * <h1>
+     * isThresholdReached
+     *
+     * <p>
+     * Returns whether enough players are resting in the world, across the network in cluster mode, to skip the night.
+     * With the {@link SkipMode#ACCELERATE} skip mode the threshold policy is not used, the night is accelerated
+     * until every eligible player of the network is resting and then skipped.
+     *
+     * @param world The world to look up.
+     * @return true if the threshold is reached, false otherwise.
+     */
+    public boolean isThresholdReached(World world) {
+        if (configuration.getSkipMode() == SkipMode.ACCELERATE) {
+            return getRestingFraction(world) >= 1;
+        }
+
+        return getNetworkSkipCount(world) >= getNetworkNecessaryToSkip(world);
+    }
+
+    /**
+     * <h1>
+     * getRestingFraction
+     *
+     * <p>
+     * Returns the fraction of the eligible weight of the world that is resting, from the cached counters.
+     * In cluster mode the counts of every server are used, so every server accelerates the time at the same rate.
+     *
+     * @param world The world to look up.
+     * @return the resting fraction, 0 if there are no eligible players.
+     */
+    public double getRestingFraction(World world) {
+        var eligibleWeight = getNetworkEligibleWeight(world);
+
+        if (eligibleWeight <= 0) {
+            return 0;
+        }
+
+        return Math.min(1, (double) getNetworkSkipCount(world) / eligibleWeight);
+    }
+
+    /**
+     * <h1>
+     * setCluster
+     *
+     * <p>
+     * Sets the synchronization with the other servers of the network.
+     *
+     * @param cluster the cluster synchronization, or null to disable cluster mode.
+     */
+    public void setCluster(ClusterSync cluster) {
+        this.cluster = cluster;
+    }
+
+    /**
+     * <h1>
+     * addObserver
+     *
+     * <p>
+     * Adds an observer notified when the state of a world changes.
+     *
+     * @param observer the observer to add.
+     */
+    void addObserver(RestingObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * <h1>
+     * notifyCountsChanged
+     *
+     * <p>
+     * Notifies the observers that the counts of the world changed, also called by the cluster synchronization
+     * when the counts of the world in the other servers change. Starts accelerating the time if players are
+     * resting, so players resting only in other servers accelerate it too.
+     *
+     * @param world the world that changed.
+     */
+    void notifyCountsChanged(World world) {
+        startAcceleration(world);
+        observers.forEach(observer -> observer.onCountsChanged(world));
+    }
+
+    /**
+     * <h1>
+     * invalidateThreshold
+     *
+     * <p>
+     * Marks the threshold of the given world to be recomputed, must be called when its population changes.
+     *
+     * @param world the world whose population changed.
+     */
+    public void invalidateThreshold(World world) {
+        var state = worldStates.get(world);
+
+        if (state != null) {
+            state.setNecessaryToSkip(-1);
+        }
+
+        notifyCountsChanged(world);
+    }
+
+    /**
+     * <h1>
+     * invalidateThresholds
+     *
+     * <p>
+     * Marks the threshold of every world to be recomputed, must be called when the configuration
+     * or the ignored list changes.
+     */
+    public void invalidateThresholds() {
+        for (WorldState state : worldStates.values()) {
+            state.setNecessaryToSkip(-1);
+        }
+
+        List.copyOf(worldStates.keySet()).forEach(this::notifyCountsChanged);
+    }
+
+    @Override
+    public int getNecessaryToSkip(World world) {
+        return getTotalNecessaryToSkip(world);
+    }
+
+    @Override
+    public long getRejectedBedEvents() {
+        return bedRateLimiter.getRejected();
+    }
+
+    /**
+     * <h1>
+     * getBedRateLimiter
+     *
+     * <p>
+     * Returns the rate limiter of the bed entries of each player.
+     *
+     * @return the bed rate limiter.
+     */
+    public BedRateLimiter getBedRateLimiter() {
+        return bedRateLimiter;
+    }
+
+    @Override
+    public boolean isSkippingNight(World world) {
+        var state = worldStates.get(world);
+        return state != null && state.isSkippingNight();
+    }
+
+    @Override
+    public int getRestingCount(World world) {
+        var state = worldStates.get(world);
+
+        if (state == null) {
+            return 0;
+        }
+
+        if (!state.isThresholdValid()) {
+            computeThreshold(world, state);
+        }
+
+        return state.getRestingCount();
+    }
+
+    @Override
+    public int getYesVotes(World world) {
+        var state = worldStates.get(world);
+        return state == null ? 0 : state.getVotes().getYesWeight();
+    }
+
+    @Override
+    public int getNoVotes(World world) {
+        var state = worldStates.get(world);
+        return state == null ? 0 : state.getVotes().getNoWeight();
+    }
+
+    /**
+     * <h1>
+     * getSkipCount
+     *
+     * <p>
+     * Returns the count compared with the threshold of the world, the players resting in a bed plus the votes
+     * to skip the night that are not cancelled by votes against it. Votes against never cancel players resting
+     * in a bed, so the skip count is never lower than the resting count.
+     *
+     * @param world The world to calculate from.
+     * @return the skip count of the world.
+     */
+    public int getSkipCount(World world) {
+        return getRestingCount(world) + Math.max(0, getYesVotes(world) - getNoVotes(world));
+    }
+
+    /**
+     * <h1>
+     * getRestingCountIfResting
+     *
+     * <p>
+     * Returns the resting count the world of the player would have if the player started resting in a bed.
+     *
+     * @param player the player that would start resting.
+     * @return the resting count after the player starts resting.
+     */
+    public int getRestingCountIfResting(Player player) {
+        var restingCount = getRestingCount(player.getWorld());
+
+        return isResting(player) ? restingCount : restingCount + getRestingWeight(player);
+    }
+
+    /**
+     * <h1>
+     * castVote
+     *
+     * <p>
+     * Casts or replaces the sleep vote of the player in its current world, weighted like a resting player.
+     * Players that don't count toward the threshold can't vote.
+     *
+     * @param player the player that votes.
+     * @param yes    true to vote to skip the night, false to vote against it.
+     * @return true if the vote changed, false if the player already had the same vote or its weight is 0.
+     */
+    public boolean castVote(Player player, boolean yes) {
+        var weight = getRestingWeight(player);
+
+        if (weight <= 0) {
+            return false;
+        }
+
+        var world = player.getWorld();
+        var state = getState(world);
+
+        if (!state.getVotes().cast(player.getUniqueId(), yes, weight)) {
+            return false;
+        }
+
+        notifyCountsChanged(world);
+        return true;
+    }
+
+    /**
+     * <h1>
+     * removeVote
+     *
+     * <p>
+     * Removes the sleep vote of the player in the given world.
+     *
+     * @param world    the world where the player voted.
+     * @param playerId the unique id of the player.
+     * @return true if the player had a vote, false otherwise.
+     */
+    public boolean removeVote(World world, UUID playerId) {
+        var state = worldStates.get(world);
+
+        if (state == null || !state.getVotes().remove(playerId)) {
+            return false;
+        }
+
+        notifyCountsChanged(world);
+        return true;
+    }
+
+    /**
+     * <h1>
+     * getVote
+     *
+     * <p>
+     * Returns the sleep vote of the player in its current world.
+     *
+     * @param player the player to look up.
+     * @return true for a vote to skip the night, false for a vote against it, or null if it didn't vote.
+     */
+    public Boolean getVote(Player player) {
+        var state = worldStates.get(player.getWorld());
+        var vote = state == null ? null : state.getVotes().getVote(player.getUniqueId());
+
+        return vote == null ? null : vote.yes();
+    }
+
+    /**
+     * <h1>
+     * isSleepTime
+     *
+     * <p>
+     * Returns whether the players can sleep or vote in the world, at night or during a thunderstorm.
+     *
+     * @param world the world to look up.
+     * @return true if it is the time to sleep, false otherwise.
+     */
+    public static boolean isSleepTime(World world) {
+        return isSleepTime(world, true);
+    }
+
+    /**
+     * <h1>
+     * isSleepTime
+     *
+     * <p>
+     * Returns whether the time of the world is between nightfall and sunrise, or during a thunderstorm
+     * if includeThunder is true.
+     *
+     * @param world          the world to look up.
+     * @param includeThunder whether a thunderstorm counts as the time to sleep.
+     * @return true if it is the time to sleep, false otherwise.
+     */
+    public static boolean isSleepTime(World world, boolean includeThunder) {
+        var time = world.getTime();
+        return (includeThunder && world.isThundering()) || (time >= NIGHTFALL_TIME && time < SUNRISE_TIME);
+    }
+
+    /**
+     * <h1>
+     * expireVotes
+     *
+     * <p>
+     * Removes the sleep votes of the worlds where the night has ended.
+     */
+    public void expireVotes() {
+        var expired = new ArrayList<World>();
+
+        worldStates.forEach((world, state) -> {
+            if (!state.getVotes().isEmpty() && !isSleepTime(world)) {
+                state.getVotes().clear();
+                expired.add(world);
+            }
+        });
+
+        expired.forEach(this::notifyCountsChanged);
+    }
+
+    /**
+     * <h1>
+     * getRestingWeight
+     *
+     * <p>
+     * Returns how much the player counts toward the resting count of its current world.
+     *
+     * @param player the player to look up.
+     * @return the weight of the player given by the threshold policy, 0 if it is not eligible.
+     */
+    public int getRestingWeight(Player player) {
+        var world = player.getWorld();
+        getTotalNecessaryToSkip(world);
+
+        return getState(world).getWeights().getOrDefault(player.getUniqueId(), 0);
+    }
+
+    /**
+     * <h1>
+     * isIgnored
+     *
+     * <p>
+     * Returns whether the player is excluded from the resting players and the threshold, because its name is
+     * in the ignored list or it has the {@value #IGNORE_PERMISSION} permission.
+     * The permission is read from the cache, never from the permission system.
+     *
+     * @param player the player to look up.
+     * @return true if the player is ignored, false otherwise.
+     */
+    public boolean isIgnored(Player player) {
+        return permissionIgnored.contains(player.getUniqueId()) || configuration.getIgnoredPlayers().contains(player.getName());
+    }
+
+    /**
+     * <h1>
+     * refreshIgnorePermission
+     *
+     * <p>
+     * Checks the {@value #IGNORE_PERMISSION} permission of the player and updates the cache.
+     * If it changed, the threshold of the world of the player is invalidated, and a player that is now
+     * ignored stops resting and loses its vote.
+     *
+     * <p>
+     * Also checks the weight of the player, that can depend on permissions like the weighted permissions
+     * of the threshold policy, and invalidates the threshold if it is not the cached weight.
+     *
+     * @param player the player to check.
+     */
+    public void refreshIgnorePermission(Player player) {
+        var playerId = player.getUniqueId();
+        var world = player.getWorld();
+
+        if (player.hasPermission(IGNORE_PERMISSION)) {
+            if (!permissionIgnored.add(playerId)) {
+                return;
             }
+
+            stopResting(world, player);
+            removeVote(world, playerId);
+        } else if (!permissionIgnored.remove(playerId) && !isWeightStale(world, player)) {
+            return;
+        }
+
+        invalidateThreshold(world);
+    }
+
+    /**
+     * <h1>
+     * isWeightStale
+     *
+     * <p>
+     * Returns whether the cached weight of the player is not the weight the threshold policy of the world
+     * gives it now. A threshold that is already invalid is never stale, it is recomputed on the next use.
+     *
+     * @param world  the world of the player.
+     * @param player the player to check.
+     * @return true if the threshold of the world must be recomputed, false otherwise.
+     */
+    private boolean isWeightStale(World world, Player player) {
+        var state = worldStates.get(world);
+
+        if (state == null || !state.isThresholdValid() || isIgnored(player)) {
+            return false;
+        }
+
+        var cachedWeight = state.getWeights().get(player.getUniqueId());
+
+        return cachedWeight == null || cachedWeight != configuration.getThresholdPolicy(world).getWeight(player);
+    }
+
+    /**
+     * <h1>
+     * refreshIgnorePermissions
+     *
+     * <p>
+     * Checks the {@value #IGNORE_PERMISSION} permission and the weight of every online player, to catch the
+     * permission changes that were not announced by any event.
+     */
+    public void refreshIgnorePermissions() {
+        plugin.getServer().getOnlinePlayers().forEach(this::refreshIgnorePermission);
+    }
+
+    /**
+     * <h1>
+     * forgetIgnorePermission
+     *
+     * <p>
+     * Removes the cached permission of a player that left the server.
+     *
+     * @param playerId the unique id of the player.
+     */
+    public void forgetIgnorePermission(UUID playerId) {
+        permissionIgnored.remove(playerId);
+    }
+
+    /**
+     * <h1>
+     * isResting
+     *
+     * <p>
+     * Returns whether the player is counted as resting in its current world.
+     *
+     * @param player the player to look up.
+     * @return true if the player is counted as resting, false otherwise.
+     */
+    public boolean isResting(Player player) {
+        var state = worldStates.get(player.getWorld());
+        return state != null && state.getRestingPlayers().contains(player.getUniqueId());
+    }
+
+    /**
+     * <h1>
+     * addRestingPlayer
+     *
+     * <p>
+     * Counts the player as resting in its current world, replacing its sleep vote.
+     *
+     * @param player the player that started resting.
+     * @return true if the player was added, false if it was already resting.
+     */
+    public boolean addRestingPlayer(Player player) {
+        var weight = getRestingWeight(player);
+        var state = getState(player.getWorld());
+
+        if (!state.getRestingPlayers().add(player.getUniqueId())) {
+            return false;
         }
 
-        double necessaryPlayersToSkip = totalPlayers * configuration.getPercentageNecessaryToSleep();
+        state.getVotes().remove(player.getUniqueId());
+        state.setRestingCount(state.getRestingCount() + weight);
+        notifyCountsChanged(player.getWorld());
+        return true;
+    }
 
-        return necessaryPlayersToSkip <= 0 ? 1 : (int) Math.ceil(necessaryPlayersToSkip);
+    /**
+     * <h1>
+     * stopResting
+     *
+     * <p>
+     * Stops counting the player as resting in the given world, because it left the bed, the world or the server,
+     * or it is ignored now. Every removal goes through here, so a {@link SleeperRestCountChangeEvent} is always
+     * called when a player stops being counted.
+     *
+     * @param world  the world where the player was resting, it may not be the current world of the player.
+     * @param player the player that stopped resting.
+     * @return true if the player was removed, false if it wasn't resting.
+     */
+    public boolean stopResting(World world, Player player) {
+        var state = worldStates.get(world);
+
+        if (state == null || !state.getRestingPlayers().contains(player.getUniqueId())) {
+            return false;
+        }
+
+        var previousCount = getRestingCount(world);
+        removeRestingPlayer(world, player.getUniqueId());
+
+        Bukkit.getPluginManager().callEvent(new SleeperRestCountChangeEvent(
+            world,
+            player,
+            previousCount,
+            getRestingCount(world),
+            getTotalNecessaryToSkip(world)
+        ));
+
+        return true;
+    }
+
+    /**
+     * <h1>
+     * removeRestingPlayer
+     *
+     * <p>
+     * Stops counting the player as resting in the given world.
+     *
+     * @param world    the world where the player was resting.
+     * @param playerId the unique id of the player that stopped resting.
+     * @return true if the player was removed, false if it wasn't resting.
+     */
+    private boolean removeRestingPlayer(World world, UUID playerId) {
+        var state = worldStates.get(world);
+
+        if (state == null || !state.getRestingPlayers().remove(playerId)) {
+            return false;
+        }
+
+        if (state.isThresholdValid()) {
+            state.setRestingCount(state.getRestingCount() - state.getWeights().getOrDefault(playerId, 0));
+        }
+
+        notifyCountsChanged(world);
+        return true;
+    }
+
+    /**
+     * <h1>
+     * getState
+     *
+     * <p>
+     * Returns the resting state of the given world, creating it if it doesn't exist.
+     *
+     * @param world the world to look up.
+     * @return the resting state of the world.
+     */
+    private WorldState getState(World world) {
+        return worldStates.computeIfAbsent(world, ignored -> new WorldState());
     }
 
     /**
@@ -212,6 +1131,10 @@ public class Resting {
      * @param command the command to execute
      */
     public void executeCommand(String command) {
+        if (command.isBlank()) {
+            return;
+        }
+
         plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(), command);
     }
 
@@ -0,0 +1,37 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.World;
+
+/**
+ * <h1>
+ * RestingObserver
+ *
+ * <p>
+ * Notified by {@link Resting} on the main thread when the state of a world changes, so the state is only
+ * read again for the worlds that changed instead of polling every world.
+ */
+interface RestingObserver {
+    /**
+     * <h1>
+     * onCountsChanged
+     *
+     * <p>
+     * Called when the resting count, the votes, the eligible players or the remote counts of the world change.
+     *
+     * @param world the world that changed.
+     */
+    default void onCountsChanged(World world) {
+    }
+
+    /**
+     * <h1>
+     * onSkipProgress
+     *
+     * <p>
+     * Called after each frame of the skip-night animation of the world, and when the skip finishes.
+     *
+     * @param world the world whose night is being skipped.
+     */
+    default void onSkipProgress(World world) {
+    }
+}
@@ -0,0 +1,39 @@
+package me.bennypls.sleeper;
+
+import java.util.Locale;
+
+/**
+ * <h1>
+ * SkipMode
+ *
+ * <p>
+ * How resting players make the night pass.
+ */
+public enum SkipMode {
+    /** The night is skipped when the threshold policy is reached. */
+    THRESHOLD,
+    /**
+     * The night runs faster in proportion to the fraction of the eligible players resting,
+     * and is skipped when every eligible player is resting, the threshold policy is not used.
+     */
+    ACCELERATE;
+
+    /**
+     * <h1>
+     * fromName
+     *
+     * <p>
+     * Returns the skip mode with the given configuration name, like "accelerate".
+     *
+     * @param name the configuration name of the skip mode.
+     * @return the skip mode with that name.
+     * @throws IllegalArgumentException if there is no skip mode with that name.
+     */
+    public static SkipMode fromName(String name) {
+        try {
+            return valueOf(String.valueOf(name).trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown skip mode - " + name + " -.", e);
+        }
+    }
+}
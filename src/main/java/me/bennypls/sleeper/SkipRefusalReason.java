@@ -0,0 +1,19 @@
+package me.bennypls.sleeper;
+
+/**
+ * <h1>
+ * SkipRefusalReason
+ *
+ * <p>
+ * The reasons for which Sleeper can refuse to skip the night.
+ */
+public enum SkipRefusalReason {
+    /** A skip-night animation is already being played in the world. */
+    ALREADY_SKIPPING,
+    /** It is not the time of the day where the night can be skipped. */
+    NOT_NIGHT,
+    /** The weather doesn't allow to skip the night. */
+    WEATHER,
+    /** A plugin cancelled the {@link SleeperNightSkipEvent}. */
+    CANCELLED
+}
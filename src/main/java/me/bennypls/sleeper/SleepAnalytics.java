@@ -0,0 +1,318 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * <h1>
+ * SleepAnalytics
+ *
+ * <p>
+ * This is a Bukkit event listener that keeps the {@link SleepStatistics} of each world from the Sleeper events.
+ *
+ * <p>
+ * The statistics are loaded from the stats.yml file of the plugin folder and periodically saved to it.
+ * The statistics are copied on the main thread and written to the file asynchronously.
+ * Worlds are saved as a list with the world name as a value, so names containing dots don't break the paths.
+ */
+public final class SleepAnalytics implements Listener {
+    /** The length of a Minecraft day in ticks. */
+    private static final long DAY_LENGTH = 24000;
+    /** The JavaPlugin instance used by the analytics. */
+    private final JavaPlugin plugin;
+    /** The Configuration instance used by the analytics. */
+    private final Configuration configuration;
+    /** The file where the statistics are saved. */
+    private final File file;
+    /** The statistics of each world by world name. */
+    private final Map<String, SleepStatistics> statistics = new HashMap<>();
+    /** Whether an asynchronous save is running, to not write the file twice at the same time. */
+    private final AtomicBoolean saving = new AtomicBoolean();
+    /** The sequence number of the last copied statistics, only used on the main thread. */
+    private long snapshotSequence;
+    /** The sequence number of the last written statistics, guarded by the write lock. */
+    private long writtenSequence;
+    /** The task that periodically saves the statistics, null if it is not running. */
+    private BukkitTask flushTask;
+
+    /**
+     * <h1>
+     * SleepAnalytics Constructor
+     *
+     * <p>
+     * Constructs a new SleepAnalytics instance that saves the statistics in the plugin folder.
+     *
+     * @param plugin        The JavaPlugin instance to use.
+     * @param configuration The Configuration instance to use.
+     */
+    public SleepAnalytics(JavaPlugin plugin, Configuration configuration) {
+        this.plugin = plugin;
+        this.configuration = configuration;
+        this.file = new File(plugin.getDataFolder(), "stats.yml");
+    }
+
+    /**
+     * <h1>
+     * getStatistics
+     *
+     * <p>
+     * Returns the statistics of the given world, creating them if they don't exist.
+     *
+     * @param worldName the name of the world.
+     * @return the statistics of the world.
+     */
+    public SleepStatistics getStatistics(String worldName) {
+        return statistics.computeIfAbsent(worldName, ignored -> new SleepStatistics());
+    }
+
+    /**
+     * <h1>
+     * On Rest Count Change
+     *
+     * <p>
+     * Updates the peak of resting players of the world.
+     *
+     * @param event the SleeperRestCountChangeEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onRestCountChange(SleeperRestCountChangeEvent event) {
+        var world = event.getWorld();
+        getStatistics(world.getName()).recordRestCount(world.getFullTime() / DAY_LENGTH, event.getNewCount());
+    }
+
+    /**
+     * <h1>
+     * On Night Skip
+     *
+     * <p>
+     * Records a skipped night, with the ticks from nightfall if the night was skipped at night.
+     *
+     * @param event the SleeperNightSkipEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onNightSkip(SleeperNightSkipEvent event) {
+        World world = event.getWorld();
+        long time = world.getTime();
+        int duration = time >= Resting.NIGHTFALL_TIME ? (int) (time - Resting.NIGHTFALL_TIME) : -1;
+
+        getStatistics(world.getName()).recordSkip(duration);
+    }
+
+    /**
+     * <h1>
+     * On Skip Refused
+     *
+     * <p>
+     * Records a refused skip, even if the refusal message was cancelled.
+     *
+     * @param event the SleeperSkipRefusedEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onSkipRefused(SleeperSkipRefusedEvent event) {
+        getStatistics(event.getWorld().getName()).recordRefusal(event.getReason());
+    }
+
+    /**
+     * <h1>
+     * Load
+     *
+     * <p>
+     * Loads the saved statistics from the stats.yml file, if it exists.
+     */
+    public void load() {
+        if (!file.exists()) {
+            return;
+        }
+
+        var saved = YamlConfiguration.loadConfiguration(file);
+
+        for (Map<?, ?> world : saved.getMapList("worlds")) {
+            if (!(world.get("name") instanceof String worldName)) {
+                continue;
+            }
+
+            var savedRefusals = world.get("refusals") instanceof Map<?, ?> map ? map : Map.of();
+            var reasons = SkipRefusalReason.values();
+            var refusals = new long[reasons.length];
+
+            for (var reason : reasons) {
+                refusals[reason.ordinal()] = toLong(savedRefusals.get(reason.name()));
+            }
+
+            getStatistics(worldName).restore(
+                toIntegerList(world.get("durations")),
+                toIntegerList(world.get("peaks")),
+                refusals,
+                toLong(world.get("skips"))
+            );
+        }
+    }
+
+    /**
+     * <h1>
+     * To Long
+     *
+     * <p>
+     * Reads a saved number.
+     *
+     * @param value the saved value.
+     * @return the number, 0 if the value is not a number.
+     */
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
+    /**
+     * <h1>
+     * To Integer List
+     *
+     * <p>
+     * Reads a saved list of numbers, skipping the values that are not numbers.
+     *
+     * @param value the saved value.
+     * @return the numbers, empty if the value is not a list.
+     */
+    private static List<Integer> toIntegerList(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return List.of();
+        }
+
+        return list.stream()
+            .filter(Number.class::isInstance)
+            .map(element -> ((Number) element).intValue())
+            .toList();
+    }
+
+    /**
+     * <h1>
+     * Start
+     *
+     * <p>
+     * Starts saving the statistics every {@link Configuration#getStatisticsFlushTicks()} ticks.
+     */
+    public void start() {
+        long period = configuration.getStatisticsFlushTicks();
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::saveAsync, period, period);
+    }
+
+    /**
+     * <h1>
+     * Stop
+     *
+     * <p>
+     * Stops the periodic save and saves the statistics on the calling thread.
+     */
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        write(++snapshotSequence, snapshot());
+    }
+
+    /**
+     * <h1>
+     * Save Async
+     *
+     * <p>
+     * Copies the statistics on the main thread and writes them to the file asynchronously.
+     * Does nothing if the previous save is still running.
+     */
+    private void saveAsync() {
+        if (!saving.compareAndSet(false, true)) {
+            return;
+        }
+
+        var sequence = ++snapshotSequence;
+        var snapshot = snapshot();
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                write(sequence, snapshot);
+            } finally {
+                saving.set(false);
+            }
+        });
+    }
+
+    /**
+     * <h1>
+     * Snapshot
+     *
+     * <p>
+     * Copies the statistics of every world.
+     *
+     * @return the copied statistics by world name.
+     */
+    private Map<String, SleepStatistics.Snapshot> snapshot() {
+        var snapshot = new HashMap<String, SleepStatistics.Snapshot>();
+
+        statistics.forEach((worldName, worldStatistics) -> snapshot.put(worldName, worldStatistics.snapshot()));
+
+        return snapshot;
+    }
+
+    /**
+     * <h1>
+     * Write
+     *
+     * <p>
+     * Writes the copied statistics to the stats.yml file.
+     * Synchronized so the final save on disable never overlaps a running asynchronous save,
+     * and a copy older than the last written one is discarded so it never overwrites newer statistics.
+     *
+     * @param sequence the sequence number of the copy.
+     * @param snapshot the copied statistics by world name.
+     */
+    private synchronized void write(long sequence, Map<String, SleepStatistics.Snapshot> snapshot) {
+        if (sequence <= writtenSequence) {
+            return;
+        }
+
+        writtenSequence = sequence;
+        var saved = new YamlConfiguration();
+        var worlds = new ArrayList<Map<String, Object>>();
+
+        snapshot.forEach((worldName, worldSnapshot) -> {
+            var world = new LinkedHashMap<String, Object>();
+            var refusals = new LinkedHashMap<String, Object>();
+
+            for (var reason : SkipRefusalReason.values()) {
+                refusals.put(reason.name(), worldSnapshot.refusals()[reason.ordinal()]);
+            }
+
+            world.put("name", worldName);
+            world.put("skips", worldSnapshot.skips());
+            world.put("durations", Arrays.stream(worldSnapshot.durations()).boxed().toList());
+            world.put("peaks", Arrays.stream(worldSnapshot.peaks()).boxed().toList());
+            world.put("refusals", refusals);
+            worlds.add(world);
+        });
+
+        saved.set("worlds", worlds);
+
+        try {
+            saved.save(file);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not save the sleep statistics.", e);
+        }
+    }
+}
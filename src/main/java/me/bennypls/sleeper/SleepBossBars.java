@@ -0,0 +1,278 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <h1>
+ * SleepBossBars
+ *
+ * <p>
+ * This is a Bukkit event listener that shows a boss bar to the players of the worlds where players are resting,
+ * with the resting players and the players necessary to skip the night, and the progress to sunrise while
+ * the night is being skipped.
+ *
+ * <p>
+ * A bar is created when the network skip count of a world is above 0, including players resting only in other
+ * servers of the network, and removed at sunrise or when nobody is resting anymore, so idle worlds have no bar.
+ * The bars are refreshed when {@link Resting} reports a change of the counts or a frame of the skip animation,
+ * and only send the changes when the visible title or progress changes.
+ */
+public final class SleepBossBars implements Listener, RestingObserver {
+    /** The Configuration instance used by the bars. */
+    private final Configuration configuration;
+    /** The Resting instance with the resting counts of the worlds. */
+    private final Resting resting;
+    /** The bar of each world with resting players. */
+    private final Map<World, WorldBar> bars = new HashMap<>();
+
+    /**
+     * <h1>
+     * SleepBossBars Constructor
+     *
+     * <p>
+     * Constructs a new SleepBossBars instance without bars.
+     *
+     * @param configuration The Configuration instance to use.
+     * @param resting       The Resting instance with the resting counts of the worlds.
+     */
+    public SleepBossBars(Configuration configuration, Resting resting) {
+        this.configuration = configuration;
+        this.resting = resting;
+    }
+
+    /**
+     * <h1>
+     * On Counts Changed
+     *
+     * <p>
+     * Refreshes the bar of the world with the new counts.
+     *
+     * @param world the world that changed.
+     */
+    @Override
+    public void onCountsChanged(World world) {
+        refresh(world);
+    }
+
+    /**
+     * <h1>
+     * On Skip Progress
+     *
+     * <p>
+     * Refreshes the bar of the world with the progress to sunrise.
+     *
+     * @param world the world whose night is being skipped.
+     */
+    @Override
+    public void onSkipProgress(World world) {
+        refresh(world);
+    }
+
+    /**
+     * <h1>
+     * On Join
+     *
+     * <p>
+     * Shows the bar of the world to the player that joined.
+     *
+     * @param event the PlayerJoinEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        var bar = bars.get(event.getPlayer().getWorld());
+
+        if (bar != null) {
+            bar.bossBar.addPlayer(event.getPlayer());
+        }
+    }
+
+    /**
+     * <h1>
+     * On Quit
+     *
+     * <p>
+     * Hides the bar of the world from the player that left.
+     *
+     * @param event the PlayerQuitEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        var bar = bars.get(event.getPlayer().getWorld());
+
+        if (bar != null) {
+            bar.bossBar.removePlayer(event.getPlayer());
+        }
+    }
+
+    /**
+     * <h1>
+     * On Changed World
+     *
+     * <p>
+     * Moves the player from the bar of the world it left to the bar of the world it entered.
+     *
+     * @param event the PlayerChangedWorldEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        var from = bars.get(event.getFrom());
+        var to = bars.get(event.getPlayer().getWorld());
+
+        if (from != null) {
+            from.bossBar.removePlayer(event.getPlayer());
+        }
+
+        if (to != null) {
+            to.bossBar.addPlayer(event.getPlayer());
+        }
+    }
+
+    /**
+     * <h1>
+     * On World Unload
+     *
+     * <p>
+     * Removes the bar of the unloaded world.
+     *
+     * @param event the WorldUnloadEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        var bar = bars.remove(event.getWorld());
+
+        if (bar != null) {
+            bar.bossBar.removeAll();
+        }
+    }
+
+    /**
+     * <h1>
+     * Stop
+     *
+     * <p>
+     * Removes every bar.
+     */
+    public void stop() {
+        bars.values().forEach(bar -> bar.bossBar.removeAll());
+        bars.clear();
+    }
+
+    /**
+     * <h1>
+     * Refresh
+     *
+     * <p>
+     * Refreshes the bar of the world with the resting counts or the progress to sunrise, creating it
+     * if boss bars are enabled and the network skip count is above 0 or the night is being skipped, and
+     * removing it when the night ended or nobody is resting.
+     *
+     * @param world the world to refresh.
+     */
+    private void refresh(World world) {
+        var bar = bars.get(world);
+        var skipping = resting.isSkippingNight(world);
+
+        if (bar == null && !skipping && !Resting.isSleepTime(world)) {
+            return;
+        }
+
+        var actual = resting.getNetworkSkipCount(world);
+
+        if (!configuration.isBossBarEnabled() || (!skipping && (!Resting.isSleepTime(world) || actual == 0))) {
+            if (bar != null) {
+                bar.bossBar.removeAll();
+                bars.remove(world);
+            }
+
+            return;
+        }
+
+        if (bar == null) {
+            var bossBar = Bukkit.createBossBar("", BarColor.BLUE, BarStyle.SOLID);
+            world.getPlayers().forEach(bossBar::addPlayer);
+            bar = new WorldBar(bossBar);
+            bars.put(world, bar);
+        }
+
+        if (skipping) {
+            var progress = (double) (world.getTime() - Resting.NIGHTFALL_TIME) / (Resting.SUNRISE_TIME - Resting.NIGHTFALL_TIME);
+            bar.set(configuration.getBossBarSkipTitle(), progress);
+        } else {
+            var necessary = resting.getNetworkNecessaryToSkip(world);
+
+            bar.set(configuration.getBossBarTitle()
+                    .replace("{actual}", String.valueOf(actual))
+                    .replace("{necessary}", String.valueOf(necessary)),
+                (double) actual / necessary);
+        }
+    }
+
+    /**
+     * <h1>
+     * WorldBar
+     *
+     * <p>
+     * The bar of a world with the last title and progress sent, to only send the changes.
+     */
+    private static final class WorldBar {
+        /** The number of visible steps of the progress. */
+        private static final int PROGRESS_STEPS = 100;
+        /** The boss bar shown to the players of the world. */
+        private final BossBar bossBar;
+        /** The last title sent. */
+        private String title;
+        /** The last progress sent, in steps. */
+        private int progress = -1;
+
+        /**
+         * <h1>
+         * WorldBar Constructor
+         *
+         * <p>
+         * Constructs a new WorldBar with the given boss bar.
+         *
+         * @param bossBar the boss bar shown to the players of the world.
+         */
+        private WorldBar(BossBar bossBar) {
+            this.bossBar = bossBar;
+        }
+
+        /**
+         * <h1>
+         * set
+         *
+         * <p>
+         * Sets the title and progress of the bar, only if they changed visibly.
+         *
+         * @param newTitle    the title of the bar.
+         * @param newProgress the progress of the bar, clamped from 0 to 1.
+         */
+        private void set(String newTitle, double newProgress) {
+            if (!newTitle.equals(title)) {
+                title = newTitle;
+                bossBar.setTitle(newTitle);
+            }
+
+            var steps = (int) Math.round(Math.max(0, Math.min(1, newProgress)) * PROGRESS_STEPS);
+
+            if (steps != progress) {
+                progress = steps;
+                bossBar.setProgress((double) steps / PROGRESS_STEPS);
+            }
+        }
+    }
+}
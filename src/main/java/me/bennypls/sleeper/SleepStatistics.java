@@ -0,0 +1,183 @@
+package me.bennypls.sleeper;
+
+import java.util.List;
+
+/**
+ * <h1>
+ * SleepStatistics
+ *
+ * <p>
+ * The rolling sleep statistics of a single world, the time from nightfall to the skip and the peak
+ * of resting players of the last skipped nights, and the number of refused skips by reason.
+ *
+ * <p>
+ * The nights are kept in ring buffers so the memory used is bounded no matter how long the server runs.
+ */
+public final class SleepStatistics {
+    /** The number of nights kept by the statistics. */
+    static final int CAPACITY = 128;
+    /** The ticks from nightfall to the skip of the last skipped nights. */
+    private final IntRingBuffer durations = new IntRingBuffer(CAPACITY);
+    /** The peak of resting players of the last skipped nights. */
+    private final IntRingBuffer peaks = new IntRingBuffer(CAPACITY);
+    /** The number of refused skips by reason. */
+    private final long[] refusals = new long[SkipRefusalReason.values().length];
+    /** The total number of skipped nights. */
+    private long skips;
+    /** The peak of resting players of the current night. */
+    private int currentPeak;
+    /** The day of the current peak, to reset it when a night passes without skipping. */
+    private long currentDay = -1;
+
+    /**
+     * <h1>
+     * recordRestCount
+     *
+     * <p>
+     * Records the resting count of the world to update the peak of the current night.
+     *
+     * @param day   the day of the world, its full time divided by the length of a day.
+     * @param count the resting count.
+     */
+    void recordRestCount(long day, int count) {
+        if (day != currentDay) {
+            currentDay = day;
+            currentPeak = 0;
+        }
+
+        currentPeak = Math.max(currentPeak, count);
+    }
+
+    /**
+     * <h1>
+     * recordSkip
+     *
+     * <p>
+     * Records a skipped night with the peak of the current night.
+     *
+     * @param duration the ticks from nightfall to the skip, or a negative value if it is unknown.
+     */
+    void recordSkip(int duration) {
+        skips++;
+
+        if (duration >= 0) {
+            durations.add(duration);
+        }
+
+        peaks.add(currentPeak);
+        currentPeak = 0;
+    }
+
+    /**
+     * <h1>
+     * recordRefusal
+     *
+     * <p>
+     * Records a refused skip.
+     *
+     * @param reason the reason of the refusal.
+     */
+    void recordRefusal(SkipRefusalReason reason) {
+        refusals[reason.ordinal()]++;
+    }
+
+    /**
+     * <h1>
+     * getSkips
+     *
+     * <p>
+     * Returns the total number of skipped nights.
+     *
+     * @return the number of skipped nights.
+     */
+    public long getSkips() {
+        return skips;
+    }
+
+    /**
+     * <h1>
+     * getRefusals
+     *
+     * <p>
+     * Returns the number of refused skips for the given reason.
+     *
+     * @param reason the reason of the refusal.
+     * @return the number of refused skips.
+     */
+    public long getRefusals(SkipRefusalReason reason) {
+        return refusals[reason.ordinal()];
+    }
+
+    /**
+     * <h1>
+     * getSortedDurations
+     *
+     * <p>
+     * Returns the ticks from nightfall to the skip of the last skipped nights, in ascending order.
+     *
+     * @return the sorted durations.
+     */
+    public int[] getSortedDurations() {
+        return durations.toSortedArray();
+    }
+
+    /**
+     * <h1>
+     * getSortedPeaks
+     *
+     * <p>
+     * Returns the peak of resting players of the last skipped nights, in ascending order.
+     *
+     * @return the sorted peaks.
+     */
+    public int[] getSortedPeaks() {
+        return peaks.toSortedArray();
+    }
+
+    /**
+     * <h1>
+     * snapshot
+     *
+     * <p>
+     * Copies the statistics so they can be saved outside the main thread.
+     *
+     * @return a copy of the statistics.
+     */
+    Snapshot snapshot() {
+        return new Snapshot(durations.toArray(), peaks.toArray(), refusals.clone(), skips);
+    }
+
+    /**
+     * <h1>
+     * restore
+     *
+     * <p>
+     * Restores saved statistics.
+     *
+     * @param savedDurations the saved durations, from the oldest to the newest.
+     * @param savedPeaks     the saved peaks, from the oldest to the newest.
+     * @param savedRefusals  the saved number of refused skips by reason ordinal.
+     * @param savedSkips     the saved total number of skipped nights.
+     */
+    void restore(List<Integer> savedDurations, List<Integer> savedPeaks, long[] savedRefusals, long savedSkips) {
+        savedDurations.forEach(durations::add);
+        savedPeaks.forEach(peaks::add);
+        System.arraycopy(savedRefusals, 0, refusals, 0, Math.min(savedRefusals.length, refusals.length));
+        skips = savedSkips;
+    }
+
+    /**
+     * <h1>
+     * Snapshot
+     *
+     * <p>
+     * An immutable copy of the statistics of a world.
+     *
+     * @param durations the ticks from nightfall to the skip, from the oldest to the newest.
+     * @param peaks     the peaks of resting players, from the oldest to the newest.
+     * @param refusals  the number of refused skips by reason ordinal.
+     * @param skips     the total number of skipped nights.
+     */
+    record Snapshot(int[] durations, int[] peaks, long[] refusals, long skips) {
+    }
+}
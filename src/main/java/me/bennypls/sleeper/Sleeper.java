@@ -1,7 +1,10 @@
 package me.bennypls.sleeper;
 
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+
 /**
  * <h1>
  * Sleeper
@@ -9,20 +12,149 @@ import org.bukkit.plugin.java.JavaPlugin;
  * <p>
  * Sleeper is the main class of the Sleeper plugin that extends {@link org.bukkit.plugin.java.JavaPlugin}.
  * It initializes the configuration and the Resting class to handle sleep events.
- * It also registers the SleeperCommand and the BedListener with the server.
+ * It also registers the SleeperCommand, the BedListener and the PopulationListener with the server,
+ * starts the cluster mode if it is enabled,
+ * and exposes the Resting class as the {@link SleeperAPI} service for other plugins.
+ * When the plugin is disabled, the skip-night animations are fast-forwarded to sunrise,
+ * the pending tasks are cancelled and the sleep statistics are saved.
  */
 public class Sleeper extends JavaPlugin {
+    /** The ticks between each removal of the sleep votes of the worlds where the night ended. */
+    private static final long VOTE_EXPIRY_TICKS = 100;
+    /** The ticks between each check of the ignore permission of every online player. */
+    private static final long IGNORE_SWEEP_TICKS = 1200;
+    /** The resting state of the worlds, released when the plugin is disabled. */
+    private Resting resting;
+    /** The sleep statistics of the worlds, saved when the plugin is disabled. */
+    private SleepAnalytics analytics;
+    /** The synchronization with the other servers of the network, null if cluster mode is disabled. */
+    private ClusterSync cluster;
+    /** The boss bars of the worlds with resting players. */
+    private SleepBossBars bossBars;
+    /** The audit log of the skips and bed events, written when the plugin is disabled. */
+    private AuditLog auditLog;
 
     public void onEnable() {
         this.saveDefaultConfig();
 
         Configuration configuration = new Configuration(this, getConfig());
-        Resting resting = new Resting(this, configuration);
+        resting = new Resting(this, configuration);
+        analytics = new SleepAnalytics(this, configuration);
+        analytics.load();
+        auditLog = new AuditLog(this, configuration, resting);
 
+        var command = new SleeperCommand(resting, configuration, analytics, auditLog);
         getCommand("sleeper")
-            .setExecutor(new SleeperCommand(resting, configuration));
+            .setExecutor(command);
+        getCommand("sleepvote")
+            .setExecutor(command);
 
         getServer().getPluginManager()
             .registerEvents(new BedListener(this, configuration, resting), this);
+
+        getServer().getPluginManager()
+            .registerEvents(new PopulationListener(this, resting), this);
+
+        getServer().getPluginManager()
+            .registerEvents(new WorldUnloadListener(resting), this);
+
+        getServer().getPluginManager()
+            .registerEvents(analytics, this);
+
+        getServer().getPluginManager()
+            .registerEvents(auditLog, this);
+
+        bossBars = new SleepBossBars(configuration, resting);
+        getServer().getPluginManager()
+            .registerEvents(bossBars, this);
+        resting.addObserver(bossBars);
+
+        analytics.start();
+        auditLog.start();
+
+        getServer().getScheduler()
+            .runTaskTimer(this, resting::expireVotes, VOTE_EXPIRY_TICKS, VOTE_EXPIRY_TICKS);
+
+        resting.refreshIgnorePermissions();
+        getServer().getScheduler()
+            .runTaskTimer(this, resting::refreshIgnorePermissions, IGNORE_SWEEP_TICKS, IGNORE_SWEEP_TICKS);
+
+        if (configuration.isClusterEnabled()) {
+            startCluster(configuration);
+        }
+
+        getServer().getServicesManager()
+            .register(SleeperAPI.class, resting, this, ServicePriority.Normal);
+    }
+
+    public void onDisable() {
+        if (cluster != null) {
+            cluster.stop();
+            cluster = null;
+        }
+
+        if (bossBars != null) {
+            bossBars.stop();
+        }
+
+        if (resting != null) {
+            resting.shutdown();
+        }
+
+        if (analytics != null) {
+            analytics.stop();
+        }
+
+        if (auditLog != null) {
+            auditLog.stop();
+        }
+
+        getServer().getScheduler().cancelTasks(this);
+        getServer().getServicesManager().unregisterAll(this);
+        resting = null;
+        analytics = null;
+        bossBars = null;
+        auditLog = null;
+    }
+
+    /**
+     * <h1>
+     * Start Cluster
+     *
+     * <p>
+     * Starts synchronizing the resting counts and skips with the other servers of the network,
+     * with the configured transport.
+     *
+     * @param configuration the configuration with the cluster settings.
+     */
+    private void startCluster(Configuration configuration) {
+        ClusterTransport transport;
+
+        switch (configuration.getClusterTransport().toLowerCase()) {
+            case "plugin-message" -> transport = new PluginMessageClusterTransport(this);
+
+            case "file" -> transport = new FileClusterTransport(
+                getLogger(),
+                new File(configuration.getClusterDirectory()),
+                configuration.getClusterServerId(),
+                configuration.getClusterFlushTicks() * 50L,
+                configuration.getClusterTimeoutTicks() * 50L
+            );
+
+            default -> {
+                getLogger().severe("Unknown cluster transport - " + configuration.getClusterTransport() + " - cluster mode disabled.");
+                return;
+            }
+        }
+
+        cluster = new ClusterSync(this, resting, transport, configuration);
+        resting.setCluster(cluster);
+        resting.addObserver(cluster);
+
+        getServer().getPluginManager()
+            .registerEvents(cluster, this);
+
+        cluster.start();
+        getLogger().info("Cluster mode enabled as server - " + configuration.getClusterServerId() + " -.");
     }
 }
@@ -0,0 +1,96 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.World;
+
+/**
+ * <h1>
+ * SleeperAPI
+ *
+ * <p>
+ * The public, read-only view of Sleeper for other plugins.
+ *
+ * <p>
+ * It is registered in the Bukkit {@link org.bukkit.plugin.ServicesManager} while Sleeper is enabled
+ * and can be obtained with {@code Bukkit.getServicesManager().load(SleeperAPI.class)}.
+ * Integrations that want to react to changes should listen to {@link SleeperRestCountChangeEvent},
+ * {@link SleeperVoteEvent}, {@link SleeperNightSkipEvent} and {@link SleeperSkipRefusedEvent}
+ * instead of polling these values.
+ * All methods must be called from the main server thread.
+ */
+public interface SleeperAPI {
+
+    /**
+     * <h1>
+     * getRestingCount
+     *
+     * <p>
+     * Returns the number of players that are currently resting in a bed in the given world.
+     * With a weighted threshold policy each player counts as its weight.
+     * Sleep votes are not included, see {@link #getYesVotes} and {@link #getNoVotes}.
+     *
+     * @param world the world to look up.
+     * @return the number of resting players, 0 if nobody is resting.
+     */
+    int getRestingCount(World world);
+
+    /**
+     * <h1>
+     * getYesVotes
+     *
+     * <p>
+     * Returns the weight of the sleep votes to skip the night in the given world.
+     * They count like resting players toward the threshold.
+     *
+     * @param world the world to look up.
+     * @return the weight of the votes to skip the night, 0 if nobody voted.
+     */
+    int getYesVotes(World world);
+
+    /**
+     * <h1>
+     * getNoVotes
+     *
+     * <p>
+     * Returns the weight of the sleep votes against skipping the night in the given world.
+     * They only cancel votes to skip the night, never players resting in a bed.
+     *
+     * @param world the world to look up.
+     * @return the weight of the votes against skipping the night, 0 if nobody voted.
+     */
+    int getNoVotes(World world);
+
+    /**
+     * <h1>
+     * getNecessaryToSkip
+     *
+     * <p>
+     * Returns the number of resting players necessary to skip the night in the given world.
+     *
+     * @param world the world to look up.
+     * @return the threshold to skip the night, at least 1.
+     */
+    int getNecessaryToSkip(World world);
+
+    /**
+     * <h1>
+     * isSkippingNight
+     *
+     * <p>
+     * Returns whether a skip-night animation is currently being played in the given world.
+     *
+     * @param world the world to look up.
+     * @return true if the night is being skipped, false otherwise.
+     */
+    boolean isSkippingNight(World world);
+
+    /**
+     * <h1>
+     * getRejectedBedEvents
+     *
+     * <p>
+     * Returns the number of bed entries suppressed by the bed spam rate limit since Sleeper was enabled.
+     *
+     * @return the number of rejected bed entries.
+     */
+    long getRejectedBedEvents();
+}
@@ -1,10 +1,14 @@
 package me.bennypls.sleeper;
 
+import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.util.Objects;
+
 /**
  * <h1>
  * SleeperCommand
@@ -13,17 +17,25 @@ import org.bukkit.entity.Player;
  * The SleeperCommand class implements the CommandExecutor interface and handles the commands for the Sleeper plugin.
  *
  * <p>
- * It has sub-commands such as skip, reload, ignored, and help.
+ * It has sub-commands such as skip, reload, ignored, stats, vote and help.
  * Skip allows administrators to skip the night and advance to sunrise.
  * Reload allows administrators to reload the configuration of the sleeping plugin.
  * Ignored allows administrators to add or remove players from a list of ignored players.
+ * Stats shows the sleep statistics of a world.
+ * Vote allows players to vote to skip the night, or against it, without a bed.
  * Help provides general help or help on a specific sub-command.
  */
 public class SleeperCommand implements CommandExecutor {
+    /** The name of the command to vote without the administration permission, handled as the vote sub-command. */
+    private static final String VOTE_COMMAND = "sleepvote";
     /** An instance of the Resting class that is used to skip the night. */
     private final Resting resting;
     /** An instance of the Configuration class that is used to manage the plugin's configuration. */
     private final Configuration configuration;
+    /** An instance of the SleepAnalytics class that is used to show the sleep statistics. */
+    private final SleepAnalytics analytics;
+    /** An instance of the AuditLog class that is used to record the changes of the ignored list. */
+    private final AuditLog auditLog;
     /** A string containing general help information for the Sleeper plugin. */
     private static final String GENERAL_HELP = """
         This is a command for managing the sleeper plugin.
@@ -33,6 +45,8 @@ public class SleeperCommand implements CommandExecutor {
         · skip      · allows administrators to skip the night and advance to sunrise.
         · reload    · allows administrators to reload the configuration of the sleeping plugin.
         · ignored   · allows administrators to add or remove players from a list of ignored players.
+        · stats     · shows the sleep statistics of a world.
+        · vote      · vote to skip the night, or against it, without a bed (also /sleepvote).
         · help      · get help for the general command or especific sub-command.
             
         For specific help type (/sleeper help [sub-command] )
@@ -56,20 +70,43 @@ public class SleeperCommand implements CommandExecutor {
                 
         These players will not be counted towards the total number of players needed to sleep through the night.
         """;
+    /** A string containing help information for the vote sub-command. */
+    private static final String VOTE_HELP = """
+        This is a sub-command of sleeper that allows players to vote to skip the night without being in a bed.
+
+        Usage : /sleeper vote [yes | no | cancel]
+        Players without the administration permission use : /sleepvote [yes | no | cancel]
+
+        A yes vote counts like a player resting in a bed, a no vote counts against it.
+        The votes expire when the night ends or the player leaves the world.
+        """;
+    /** A string containing help information for the stats sub-command. */
+    private static final String STATS_HELP = """
+        This is a sub-command of sleeper that shows the sleep statistics of a world.
+
+        Usage : /sleeper stats (WORLD NAME)
+
+        Shows the time from nightfall to the skip and the peak of resting players of the last skipped nights,
+        and the number of refused skips by reason. Without a world name, the world of the player is used.
+        """;
 
     /**
      * <h1>
      * SleeperCommand Constructor
      *
      * <p>
-     * Constructs a new SleeperCommand with the specified Resting and Configuration instances.
+     * Constructs a new SleeperCommand with the specified Resting, Configuration, SleepAnalytics and AuditLog instances.
      *
      * @param resting       the Resting instance to use for skipping the night
      * @param configuration the Configuration instance to use for managing the plugin's configuration
+     * @param analytics     the SleepAnalytics instance to use for showing the sleep statistics
+     * @param auditLog      the AuditLog instance to use for recording the changes of the ignored list
      */
-    public SleeperCommand(Resting resting, Configuration configuration) {
+    public SleeperCommand(Resting resting, Configuration configuration, SleepAnalytics analytics, AuditLog auditLog) {
         this.resting = resting;
         this.configuration = configuration;
+        this.analytics = analytics;
+        this.auditLog = auditLog;
     }
 
     /**
@@ -88,6 +125,14 @@ public class SleeperCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
 
+        if (command.getName().equalsIgnoreCase(VOTE_COMMAND)) {
+            var voteArgs = new String[args.length + 1];
+            voteArgs[0] = "vote";
+            System.arraycopy(args, 0, voteArgs, 1, args.length);
+
+            return vote(sender, voteArgs);
+        }
+
         if (args.length == 0) {
             sender.sendMessage("This command need at least 1 argument.");
             return false;
@@ -106,6 +151,14 @@ public class SleeperCommand implements CommandExecutor {
                 return ignoredPlayers(sender, args);
             }
 
+            case "stats" -> {
+                return stats(sender, args);
+            }
+
+            case "vote" -> {
+                return vote(sender, args);
+            }
+
             case "help" -> {
                 return help(sender, args);
             }
@@ -138,8 +191,17 @@ public class SleeperCommand implements CommandExecutor {
             return false;
         }
 
-        if (!resting.skipNight(player.getWorld(), true)) {
-            player.sendMessage("It's already skipping night.");
+        var reason = resting.skipNight(player.getWorld(), true, player);
+
+        if (reason == null) {
+            return true;
+        }
+
+        switch (reason) {
+            case ALREADY_SKIPPING -> player.sendMessage("It's already skipping night.");
+            case NOT_NIGHT -> player.sendMessage("The night can't be skipped at this time.");
+            case WEATHER -> player.sendMessage("The night can't be skipped with this weather.");
+            case CANCELLED -> player.sendMessage("Another plugin prevented the night from being skipped.");
         }
 
         return true;
@@ -163,7 +225,15 @@ public class SleeperCommand implements CommandExecutor {
         }
 
         sender.sendMessage("Sleeper : Starting configuration reload...");
-        configuration.reload();
+        boolean valid = configuration.reload();
+        resting.invalidateThresholds();
+        auditLog.reloadSettings();
+
+        if (!valid) {
+            sender.sendMessage("Sleeper : Invalid animation settings, the previous ones are kept. See the console.");
+            return false;
+        }
+
         sender.sendMessage("Sleeper : Reload completed!");
 
         return true;
@@ -223,8 +293,10 @@ public class SleeperCommand implements CommandExecutor {
      */
     private boolean add(CommandSender sender, String playerName) {
         boolean success = configuration.addIgnoredPlayer(playerName);
+        resting.invalidateThresholds();
 
         if (success) {
+            auditLog.recordIgnoreChange(sender.getName(), playerName, true);
             sender.sendMessage("The player - " + playerName + " - has been added to the ignored list.");
         } else {
             sender.sendMessage("The player with name - " + playerName + " - is already in the ignored list.");
@@ -246,8 +318,10 @@ public class SleeperCommand implements CommandExecutor {
      */
     private boolean remove(CommandSender sender, String playerName) {
         boolean success = configuration.removeIgnoredPlayer(playerName);
+        resting.invalidateThresholds();
 
         if (success) {
+            auditLog.recordIgnoreChange(sender.getName(), playerName, false);
             sender.sendMessage("The player - " + playerName + " - has been removed from the ignored list.");
         } else {
             sender.sendMessage("The player with name - " + playerName + " - not found in ignored list.");
@@ -256,6 +330,166 @@ public class SleeperCommand implements CommandExecutor {
         return success;
     }
 
+    /**
+     * <h1>
+     * stats
+     *
+     * <p>
+     * This method shows the sleep statistics of the given world, or the world of the player if none is given.
+     *
+     * @param sender the CommandSender who executed the command
+     * @param args   the array of arguments passed with the command
+     * @return true if the statistics were shown, false otherwise
+     */
+    private boolean stats(CommandSender sender, String[] args) {
+        World world;
+
+        if (args.length == 2) {
+            world = sender.getServer().getWorld(args[1]);
+        } else if (args.length == 1 && sender instanceof Player player) {
+            world = player.getWorld();
+        } else {
+            sender.sendMessage("This command needs 2 arguments");
+            return false;
+        }
+
+        if (world == null) {
+            sender.sendMessage("The world does not exist");
+            return false;
+        }
+
+        var statistics = analytics.getStatistics(world.getName());
+        var durations = statistics.getSortedDurations();
+        var peaks = statistics.getSortedPeaks();
+        var refusals = new StringBuilder();
+
+        for (var reason : SkipRefusalReason.values()) {
+            refusals.append(' ').append(reason.name()).append(" = ").append(statistics.getRefusals(reason));
+        }
+
+        sender.sendMessage("Sleeper : Statistics of " + world.getName());
+        sender.sendMessage("· Skipped nights : " + statistics.getSkips());
+        sender.sendMessage("· Ticks from nightfall to skip (last " + durations.length + ") : " + summarize(durations));
+        sender.sendMessage("· Peak resting players (last " + peaks.length + ") : " + summarize(peaks));
+        sender.sendMessage("· Refused skips :" + refusals);
+        sender.sendMessage("· Suppressed bed entries (all worlds) : " + resting.getRejectedBedEvents());
+
+        return true;
+    }
+
+    /**
+     * <h1>
+     * vote
+     *
+     * <p>
+     * This method manages the sub-command vote that allows a player to vote to skip the night, or against it,
+     * without being in a bed. The night is skipped if the vote reaches the threshold.
+     *
+     * @param sender the CommandSender who executed the command
+     * @param args   the array of arguments passed with the command
+     * @return true if the vote was counted, false otherwise
+     */
+    private boolean vote(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage("Only players can vote.");
+            return false;
+        }
+
+        if (args.length > 2) {
+            player.sendMessage("Unnecessary arguments.");
+            return false;
+        }
+
+        Boolean yes;
+
+        switch (args.length == 1 ? "yes" : args[1].toLowerCase()) {
+            case "yes" -> yes = true;
+            case "no" -> yes = false;
+            case "cancel" -> yes = null;
+            default -> {
+                player.sendMessage(args[1] + " is not a valid vote.");
+                return false;
+            }
+        }
+
+        var world = player.getWorld();
+
+        if (yes != null && !Resting.isSleepTime(world)) {
+            player.sendMessage("You can only vote at night or during a thunderstorm.");
+            return false;
+        }
+
+        if (yes != null && resting.isResting(player)) {
+            player.sendMessage("You are already resting in a bed.");
+            return false;
+        }
+
+        if (resting.isIgnored(player)) {
+            player.sendMessage("You are ignored, your vote doesn't count.");
+            return false;
+        }
+
+        if (yes != null && resting.getRestingWeight(player) <= 0) {
+            player.sendMessage("You don't count toward the players necessary to skip the night, your vote doesn't count.");
+            return false;
+        }
+
+        if (Objects.equals(resting.getVote(player), yes)) {
+            player.sendMessage(yes == null ? "You haven't voted." : "You have already voted.");
+            return true;
+        }
+
+        var event = new SleeperVoteEvent(player, resting.getVote(player), yes, resting.getRestingWeight(player));
+        Bukkit.getPluginManager().callEvent(event);
+
+        if (event.isCancelled()) {
+            player.sendMessage("Your vote has been rejected.");
+            return true;
+        }
+
+        if (yes == null) {
+            resting.removeVote(world, player.getUniqueId());
+        } else {
+            resting.castVote(player, yes);
+        }
+
+        player.sendMessage("Vote counted : " + resting.getNetworkSkipCount(world)
+            + " / " + resting.getNetworkNecessaryToSkip(world) + " to skip the night.");
+
+        if (resting.isThresholdReached(world)) {
+            resting.skipNight(world, false, player);
+        }
+
+        return true;
+    }
+
+    /**
+     * <h1>
+     * summarize
+     *
+     * <p>
+     * Summarizes sorted values with their minimum, median, average and maximum.
+     *
+     * @param sorted the values in ascending order
+     * @return the summary of the values, or "no data" if there are none
+     */
+    private static String summarize(int[] sorted) {
+        if (sorted.length == 0) {
+            return "no data";
+        }
+
+        long total = 0;
+
+        for (int value : sorted) {
+            total += value;
+        }
+
+        return "min " + sorted[0]
+            + ", median " + sorted[sorted.length / 2]
+            + ", average " + total / sorted.length
+            + ", max " + sorted[sorted.length - 1];
+    }
+
     /**
      * <h1>
      * help
@@ -289,6 +523,16 @@ public class SleeperCommand implements CommandExecutor {
                 return true;
             }
 
+            case "stats" -> {
+                sender.sendMessage(STATS_HELP);
+                return true;
+            }
+
+            case "vote" -> {
+                sender.sendMessage(VOTE_HELP);
+                return true;
+            }
+
             default -> {
                 sender.sendMessage("This is not a valid sub-command to get help of.");
                 return false;
@@ -0,0 +1,102 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.world.WorldEvent;
+
+/**
+ * <h1>
+ * SleeperNightSkipEvent
+ *
+ * <p>
+ * Called when Sleeper is about to skip the night in a world, before the skip-night message is executed
+ * and the animation starts.
+ *
+ * <p>
+ * If the event is cancelled the night is not skipped and a {@link SleeperSkipRefusedEvent} is called
+ * with the reason {@link SkipRefusalReason#CANCELLED}.
+ */
+public class SleeperNightSkipEvent extends WorldEvent implements Cancellable {
+    /** The handlers of this event. */
+    private static final HandlerList HANDLERS = new HandlerList();
+    /** Whether the skip was forced by an administrator. */
+    private final boolean forced;
+    /** Who triggered the skip, null if it was triggered by another server of the network. */
+    private final CommandSender initiator;
+    /** Whether the event has been cancelled. */
+    private boolean cancelled;
+
+    /**
+     * <h1>
+     * SleeperNightSkipEvent Constructor
+     *
+     * <p>
+     * Constructs a new SleeperNightSkipEvent for the given world.
+     *
+     * @param world     the world where the night is going to be skipped.
+     * @param forced    whether the skip was forced by an administrator.
+     * @param initiator who triggered the skip, null if it was triggered by another server of the network.
+     */
+    public SleeperNightSkipEvent(World world, boolean forced, CommandSender initiator) {
+        super(world);
+        this.forced = forced;
+        this.initiator = initiator;
+    }
+
+    /**
+     * <h1>
+     * isForced
+     *
+     * <p>
+     * Returns whether the skip was forced by an administrator with {@code /sleeper skip}.
+     *
+     * @return true if the skip was forced, false if it was triggered by resting players.
+     */
+    public boolean isForced() {
+        return forced;
+    }
+
+    /**
+     * <h1>
+     * getInitiator
+     *
+     * <p>
+     * Returns who triggered the skip, the administrator that forced it, or the player whose rest or vote
+     * reached the threshold.
+     *
+     * @return the initiator of the skip, null if it was triggered by another server of the network.
+     */
+    public CommandSender getInitiator() {
+        return initiator;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    /**
+     * <h1>
+     * getHandlerList
+     *
+     * <p>
+     * Returns the handlers of this event, required by Bukkit.
+     *
+     * @return the handlers of this event.
+     */
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,178 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.world.WorldEvent;
+
+/**
+ * <h1>
+ * SleeperRestCountChangeEvent
+ *
+ * <p>
+ * Called when a player starts or stops being counted as resting in a world.
+ *
+ * <p>
+ * Cancelling the event when the count increases prevents the player from being counted.
+ * A player that leaves the bed is already removed from the count when the event is called, so cancelling
+ * a decrease is ignored and {@link #isCancelled()} stays false.
+ */
+public class SleeperRestCountChangeEvent extends WorldEvent implements Cancellable {
+    /** The handlers of this event. */
+    private static final HandlerList HANDLERS = new HandlerList();
+    /** The player that started or stopped resting. */
+    private final Player player;
+    /** The number of resting players before the change. */
+    private final int previousCount;
+    /** The number of resting players after the change. */
+    private final int newCount;
+    /** The number of resting players necessary to skip the night. */
+    private final int necessaryToSkip;
+    /** Whether the event has been cancelled. */
+    private boolean cancelled;
+
+    /**
+     * <h1>
+     * SleeperRestCountChangeEvent Constructor
+     *
+     * <p>
+     * Constructs a new SleeperRestCountChangeEvent for the world of the given player.
+     *
+     * @param player          the player that started or stopped resting.
+     * @param previousCount   the number of resting players before the change.
+     * @param newCount        the number of resting players after the change.
+     * @param necessaryToSkip the number of resting players necessary to skip the night.
+     */
+    public SleeperRestCountChangeEvent(Player player, int previousCount, int newCount, int necessaryToSkip) {
+        this(player.getWorld(), player, previousCount, newCount, necessaryToSkip);
+    }
+
+    /**
+     * <h1>
+     * SleeperRestCountChangeEvent Constructor
+     *
+     * <p>
+     * Constructs a new SleeperRestCountChangeEvent for the given world, for a player that is no longer in it.
+     *
+     * @param world           the world where the resting count changed.
+     * @param player          the player that started or stopped resting.
+     * @param previousCount   the number of resting players before the change.
+     * @param newCount        the number of resting players after the change.
+     * @param necessaryToSkip the number of resting players necessary to skip the night.
+     */
+    public SleeperRestCountChangeEvent(World world, Player player, int previousCount, int newCount, int necessaryToSkip) {
+        super(world);
+        this.player = player;
+        this.previousCount = previousCount;
+        this.newCount = newCount;
+        this.necessaryToSkip = necessaryToSkip;
+    }
+
+    /**
+     * <h1>
+     * getPlayer
+     *
+     * <p>
+     * Returns the player that started or stopped resting.
+     *
+     * @return the player of this change.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * <h1>
+     * getPreviousCount
+     *
+     * <p>
+     * Returns the number of resting players before the change.
+     *
+     * @return the previous number of resting players.
+     */
+    public int getPreviousCount() {
+        return previousCount;
+    }
+
+    /**
+     * <h1>
+     * getNewCount
+     *
+     * <p>
+     * Returns the number of resting players after the change.
+     *
+     * @return the new number of resting players.
+     */
+    public int getNewCount() {
+        return newCount;
+    }
+
+    /**
+     * <h1>
+     * getNecessaryToSkip
+     *
+     * <p>
+     * Returns the number of resting players necessary to skip the night.
+     *
+     * @return the threshold to skip the night.
+     */
+    public int getNecessaryToSkip() {
+        return necessaryToSkip;
+    }
+
+    /**
+     * <h1>
+     * isResting
+     *
+     * <p>
+     * Returns whether the player started resting with this change.
+     *
+     * @return true if the count increases, false if it decreases.
+     */
+    public boolean isResting() {
+        return newCount > previousCount;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * <h1>
+     * setCancelled
+     *
+     * <p>
+     * Sets whether the player is prevented from being counted as resting.
+     * Does nothing when the count decreases, a player that left the bed is already removed from the count.
+     *
+     * @param cancelled true to prevent the player from being counted.
+     */
+    @Override
+    public void setCancelled(boolean cancelled) {
+        if (!isResting()) {
+            return;
+        }
+
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    /**
+     * <h1>
+     * getHandlerList
+     *
+     * <p>
+     * Returns the handlers of this event, required by Bukkit.
+     *
+     * @return the handlers of this event.
+     */
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
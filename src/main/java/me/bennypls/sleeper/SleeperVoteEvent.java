@@ -0,0 +1,132 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.world.WorldEvent;
+
+/**
+ * <h1>
+ * SleeperVoteEvent
+ *
+ * <p>
+ * Called when a player casts, changes or cancels a sleep vote with {@code /sleeper vote}.
+ * Votes are not bed activity, players resting in a bed are reported by {@link SleeperRestCountChangeEvent}.
+ *
+ * <p>
+ * Cancelling the event rejects the vote and keeps the previous one.
+ */
+public class SleeperVoteEvent extends WorldEvent implements Cancellable {
+    /** The handlers of this event. */
+    private static final HandlerList HANDLERS = new HandlerList();
+    /** The player that votes. */
+    private final Player player;
+    /** The previous vote of the player, null if it hadn't voted. */
+    private final Boolean previousVote;
+    /** The new vote of the player, null if it cancels its vote. */
+    private final Boolean vote;
+    /** How much the vote counts. */
+    private final int weight;
+    /** Whether the event has been cancelled. */
+    private boolean cancelled;
+
+    /**
+     * <h1>
+     * SleeperVoteEvent Constructor
+     *
+     * <p>
+     * Constructs a new SleeperVoteEvent for the world of the given player.
+     *
+     * @param player       the player that votes.
+     * @param previousVote the previous vote of the player, null if it hadn't voted.
+     * @param vote         the new vote of the player, null if it cancels its vote.
+     * @param weight       how much the vote counts.
+     */
+    public SleeperVoteEvent(Player player, Boolean previousVote, Boolean vote, int weight) {
+        super(player.getWorld());
+        this.player = player;
+        this.previousVote = previousVote;
+        this.vote = vote;
+        this.weight = weight;
+    }
+
+    /**
+     * <h1>
+     * getPlayer
+     *
+     * <p>
+     * Returns the player that votes.
+     *
+     * @return the player of this vote.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * <h1>
+     * getPreviousVote
+     *
+     * <p>
+     * Returns the previous vote of the player.
+     *
+     * @return true for a vote to skip the night, false for a vote against it, or null if it hadn't voted.
+     */
+    public Boolean getPreviousVote() {
+        return previousVote;
+    }
+
+    /**
+     * <h1>
+     * getVote
+     *
+     * <p>
+     * Returns the new vote of the player.
+     *
+     * @return true for a vote to skip the night, false for a vote against it, or null if the vote is cancelled.
+     */
+    public Boolean getVote() {
+        return vote;
+    }
+
+    /**
+     * <h1>
+     * getWeight
+     *
+     * <p>
+     * Returns how much the vote counts, the weight of the player given by the threshold policy.
+     *
+     * @return the weight of the vote.
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    /**
+     * <h1>
+     * getHandlerList
+     *
+     * <p>
+     * Returns the handlers of this event, required by Bukkit.
+     *
+     * @return the handlers of this event.
+     */
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,44 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.entity.Player;
+
+/**
+ * <h1>
+ * ThresholdPolicy
+ *
+ * <p>
+ * A policy that decides how many resting players are necessary to skip the night in a world.
+ *
+ * <p>
+ * The policy is only consulted when the population of a world changes, the result is cached by {@link Resting}
+ * so the policy cost is not paid on every bed event.
+ */
+public interface ThresholdPolicy {
+
+    /**
+     * <h1>
+     * getWeight
+     *
+     * <p>
+     * Returns how much the given player counts toward the population and the resting players.
+     * A weight of 0 excludes the player.
+     *
+     * @param player the player to weight, not in the ignored list.
+     * @return the weight of the player, 1 by default.
+     */
+    default int getWeight(Player player) {
+        return 1;
+    }
+
+    /**
+     * <h1>
+     * getNecessary
+     *
+     * <p>
+     * Returns the resting weight necessary to skip the night for the given eligible weight.
+     *
+     * @param eligibleWeight the sum of the weights of all the eligible players in the world.
+     * @return the resting weight necessary to skip the night, values under 1 are treated as 1.
+     */
+    int getNecessary(int eligibleWeight);
+}
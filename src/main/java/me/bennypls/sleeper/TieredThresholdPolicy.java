@@ -0,0 +1,43 @@
+package me.bennypls.sleeper;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * <h1>
+ * TieredThresholdPolicy
+ *
+ * <p>
+ * The percentage of players necessary to skip the night depends on the population of the world,
+ * the tier with the highest minimum population not greater than the eligible players is used.
+ */
+public class TieredThresholdPolicy implements ThresholdPolicy {
+    /** The percentage to use by the minimum population of each tier. */
+    private final NavigableMap<Integer, Double> tiers;
+    /** The percentage to use when the population is under every tier. */
+    private final double defaultPercentage;
+
+    /**
+     * <h1>
+     * TieredThresholdPolicy Constructor
+     *
+     * <p>
+     * Constructs a new TieredThresholdPolicy with the given tiers.
+     *
+     * @param tiers             the percentage to use by the minimum population of each tier.
+     * @param defaultPercentage the percentage to use when the population is under every tier.
+     */
+    public TieredThresholdPolicy(NavigableMap<Integer, Double> tiers, double defaultPercentage) {
+        this.tiers = new TreeMap<>(tiers);
+        this.defaultPercentage = defaultPercentage;
+    }
+
+    @Override
+    public int getNecessary(int eligibleWeight) {
+        var tier = tiers.floorEntry(eligibleWeight);
+        double percentage = tier == null ? defaultPercentage : tier.getValue();
+        double necessaryPlayersToSkip = eligibleWeight * percentage;
+
+        return necessaryPlayersToSkip <= 0 ? 1 : (int) Math.ceil(necessaryPlayersToSkip);
+    }
+}
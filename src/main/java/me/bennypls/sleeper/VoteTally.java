@@ -0,0 +1,213 @@
+package me.bennypls.sleeper;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h1>
+ * VoteTally
+ *
+ * <p>
+ * The lock-free tally of the sleep votes of a world, players that vote to skip the night
+ * without being in a bed, or vote against it.
+ *
+ * <p>
+ * Each vote swaps the previous vote of the player atomically and adds the difference to the running totals,
+ * so the totals are always the sum of the votes no matter how many players vote at the same time,
+ * and reading them doesn't depend on the number of voters.
+ */
+final class VoteTally {
+    /** The current vote of each player. */
+    private final Map<UUID, Vote> votes = new ConcurrentHashMap<>();
+    /** The sum of the weights of the votes to skip the night. */
+    private final AtomicInteger yesWeight = new AtomicInteger();
+    /** The sum of the weights of the votes against skipping the night. */
+    private final AtomicInteger noWeight = new AtomicInteger();
+
+    /**
+     * <h1>
+     * cast
+     *
+     * <p>
+     * Casts or replaces the vote of a player.
+     *
+     * @param playerId the unique id of the player.
+     * @param yes      true to vote to skip the night, false to vote against it.
+     * @param weight   how much the vote counts.
+     * @return true if the vote changed, false if the player already had the same vote.
+     */
+    boolean cast(UUID playerId, boolean yes, int weight) {
+        var vote = new Vote(yes, weight);
+        var previous = votes.put(playerId, vote);
+
+        if (vote.equals(previous)) {
+            return false;
+        }
+
+        uncount(previous);
+        count(vote);
+        return true;
+    }
+
+    /**
+     * <h1>
+     * remove
+     *
+     * <p>
+     * Removes the vote of a player.
+     *
+     * @param playerId the unique id of the player.
+     * @return true if the player had a vote, false otherwise.
+     */
+    boolean remove(UUID playerId) {
+        var previous = votes.remove(playerId);
+
+        uncount(previous);
+        return previous != null;
+    }
+
+    /**
+     * <h1>
+     * clear
+     *
+     * <p>
+     * Removes every vote.
+     */
+    void clear() {
+        for (UUID playerId : votes.keySet()) {
+            remove(playerId);
+        }
+    }
+
+    /**
+     * <h1>
+     * reweigh
+     *
+     * <p>
+     * Replaces the weight of every vote with the current weight of its player and rebuilds the totals,
+     * must be called when the weights change. Must not be called while votes are being cast.
+     *
+     * @param weights the current weight of each eligible player, the votes of the other players count 0.
+     */
+    void reweigh(Map<UUID, Integer> weights) {
+        int yes = 0;
+        int no = 0;
+
+        for (var entry : votes.entrySet()) {
+            var vote = entry.getValue();
+            int weight = weights.getOrDefault(entry.getKey(), 0);
+
+            if (vote.weight() != weight) {
+                vote = new Vote(vote.yes(), weight);
+                entry.setValue(vote);
+            }
+
+            if (vote.yes()) {
+                yes += weight;
+            } else {
+                no += weight;
+            }
+        }
+
+        yesWeight.set(yes);
+        noWeight.set(no);
+    }
+
+    /**
+     * <h1>
+     * getVote
+     *
+     * <p>
+     * Returns the current vote of a player.
+     *
+     * @param playerId the unique id of the player.
+     * @return the vote of the player, or null if it didn't vote.
+     */
+    Vote getVote(UUID playerId) {
+        return votes.get(playerId);
+    }
+
+    /**
+     * <h1>
+     * getYesWeight
+     *
+     * <p>
+     * Returns the sum of the weights of the votes to skip the night.
+     *
+     * @return the weight of the yes votes.
+     */
+    int getYesWeight() {
+        return yesWeight.get();
+    }
+
+    /**
+     * <h1>
+     * getNoWeight
+     *
+     * <p>
+     * Returns the sum of the weights of the votes against skipping the night.
+     *
+     * @return the weight of the no votes.
+     */
+    int getNoWeight() {
+        return noWeight.get();
+    }
+
+    /**
+     * <h1>
+     * isEmpty
+     *
+     * <p>
+     * Returns whether nobody has voted.
+     *
+     * @return true if there are no votes, false otherwise.
+     */
+    boolean isEmpty() {
+        return votes.isEmpty();
+    }
+
+    /**
+     * <h1>
+     * count
+     *
+     * <p>
+     * Adds a vote to the totals.
+     *
+     * @param vote the vote to add, may be null.
+     */
+    private void count(Vote vote) {
+        if (vote != null) {
+            (vote.yes() ? yesWeight : noWeight).addAndGet(vote.weight());
+        }
+    }
+
+    /**
+     * <h1>
+     * uncount
+     *
+     * <p>
+     * Removes a vote from the totals.
+     *
+     * @param vote the vote to remove, may be null.
+     */
+    private void uncount(Vote vote) {
+        if (vote != null) {
+            (vote.yes() ? yesWeight : noWeight).addAndGet(-vote.weight());
+        }
+    }
+
+    /**
+     * <h1>
+     * Vote
+     *
+     * <p>
+     * The vote of a player.
+     *
+     * @param yes    true if the vote is to skip the night, false if it is against it.
+     * @param weight how much the vote counts.
+     */
+    record Vote(boolean yes, int weight) {
+    }
+}
@@ -0,0 +1,46 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+
+/**
+ * <h1>
+ * WeightedThresholdPolicy
+ *
+ * <p>
+ * A percentage of the eligible weight is necessary to skip the night, where each player weights
+ * the highest value of the weighted permissions it has, or 1 if it has none.
+ */
+public class WeightedThresholdPolicy extends PercentageThresholdPolicy {
+    /** The weight given by each permission. */
+    private final Map<String, Integer> weightedPermissions;
+
+    /**
+     * <h1>
+     * WeightedThresholdPolicy Constructor
+     *
+     * <p>
+     * Constructs a new WeightedThresholdPolicy with the given percentage and permission weights.
+     *
+     * @param percentage          the percentage of the weight necessary to skip the night, from 0 to 1.
+     * @param weightedPermissions the weight given by each permission.
+     */
+    public WeightedThresholdPolicy(double percentage, Map<String, Integer> weightedPermissions) {
+        super(percentage);
+        this.weightedPermissions = Map.copyOf(weightedPermissions);
+    }
+
+    @Override
+    public int getWeight(Player player) {
+        int weight = 1;
+
+        for (var entry : weightedPermissions.entrySet()) {
+            if (entry.getValue() > weight && player.hasPermission(entry.getKey())) {
+                weight = entry.getValue();
+            }
+        }
+
+        return weight;
+    }
+}
@@ -0,0 +1,277 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * <h1>
+ * WorldState
+ *
+ * <p>
+ * Holds the sleeping state of a single world, the players currently resting in it, the sleep votes,
+ * the cached threshold to skip the night, whether a skip-night animation is being played and the time acceleration.
+ *
+ * <p>
+ * Instances are owned by {@link Resting} and only accessed from the main server thread.
+ */
+final class WorldState {
+    /** The unique ids of the players that are currently counted as resting in this world. */
+    private final Set<UUID> restingPlayers = new HashSet<>();
+    /** The weight of each eligible player, computed by the threshold policy. */
+    private final Map<UUID, Integer> weights = new HashMap<>();
+    /** The sum of the weights of the resting players. */
+    private int restingCount;
+    /** The sum of the weights of all the eligible players. */
+    private int eligibleWeight;
+    /** The cached resting weight necessary to skip the night, or -1 if it must be recomputed. */
+    private int necessaryToSkip = -1;
+    /** Whether a skip-night animation is currently being played in this world. */
+    private boolean skippingNight;
+    /** The sleep votes of the players of this world. */
+    private final VoteTally votes = new VoteTally();
+    /** The task of the skip-night animation being played, null if there is none. */
+    private BukkitTask animationTask;
+    /** The task that accelerates the time while players are resting, null if there is none. */
+    private BukkitTask accelerationTask;
+    /** The fraction of a tick accelerated but not yet added to the time of the world. */
+    private double accelerationRemainder;
+
+    /**
+     * <h1>
+     * getRestingPlayers
+     *
+     * <p>
+     * Returns the set of players that are currently counted as resting.
+     *
+     * @return the mutable set of the resting players' unique ids.
+     */
+    Set<UUID> getRestingPlayers() {
+        return restingPlayers;
+    }
+
+    /**
+     * <h1>
+     * getVotes
+     *
+     * <p>
+     * Returns the sleep votes of the players of this world.
+     *
+     * @return the vote tally.
+     */
+    VoteTally getVotes() {
+        return votes;
+    }
+
+    /**
+     * <h1>
+     * getWeights
+     *
+     * <p>
+     * Returns the weight of each eligible player, valid while the threshold is valid.
+     *
+     * @return the mutable map of the weights by player unique id.
+     */
+    Map<UUID, Integer> getWeights() {
+        return weights;
+    }
+
+    /**
+     * <h1>
+     * getRestingCount
+     *
+     * <p>
+     * Returns the sum of the weights of the resting players, without the votes.
+     *
+     * @return the resting count.
+     */
+    int getRestingCount() {
+        return restingCount;
+    }
+
+    /**
+     * <h1>
+     * setRestingCount
+     *
+     * <p>
+     * Sets the sum of the weights of the resting players.
+     *
+     * @param restingCount the resting count.
+     */
+    void setRestingCount(int restingCount) {
+        this.restingCount = restingCount;
+    }
+
+    /**
+     * <h1>
+     * getEligibleWeight
+     *
+     * <p>
+     * Returns the sum of the weights of all the eligible players, valid while the threshold is valid.
+     *
+     * @return the eligible weight.
+     */
+    int getEligibleWeight() {
+        return eligibleWeight;
+    }
+
+    /**
+     * <h1>
+     * setEligibleWeight
+     *
+     * <p>
+     * Sets the sum of the weights of all the eligible players.
+     *
+     * @param eligibleWeight the eligible weight.
+     */
+    void setEligibleWeight(int eligibleWeight) {
+        this.eligibleWeight = eligibleWeight;
+    }
+
+    /**
+     * <h1>
+     * isThresholdValid
+     *
+     * <p>
+     * Returns whether the cached threshold is still valid for the population of the world.
+     *
+     * @return true if the threshold is valid, false if it must be recomputed.
+     */
+    boolean isThresholdValid() {
+        return necessaryToSkip > 0;
+    }
+
+    /**
+     * <h1>
+     * getNecessaryToSkip
+     *
+     * <p>
+     * Returns the cached resting weight necessary to skip the night.
+     *
+     * @return the threshold, or -1 if it must be recomputed.
+     */
+    int getNecessaryToSkip() {
+        return necessaryToSkip;
+    }
+
+    /**
+     * <h1>
+     * setNecessaryToSkip
+     *
+     * <p>
+     * Caches the resting weight necessary to skip the night.
+     *
+     * @param necessaryToSkip the threshold, or -1 to invalidate it.
+     */
+    void setNecessaryToSkip(int necessaryToSkip) {
+        this.necessaryToSkip = necessaryToSkip;
+    }
+
+    /**
+     * <h1>
+     * isSkippingNight
+     *
+     * <p>
+     * Returns whether a skip-night animation is currently being played.
+     *
+     * @return true if the night is being skipped, false otherwise.
+     */
+    boolean isSkippingNight() {
+        return skippingNight;
+    }
+
+    /**
+     * <h1>
+     * setSkippingNight
+     *
+     * <p>
+     * Sets whether a skip-night animation is currently being played.
+     *
+     * @param skippingNight true if the night is being skipped, false otherwise.
+     */
+    void setSkippingNight(boolean skippingNight) {
+        this.skippingNight = skippingNight;
+    }
+
+    /**
+     * <h1>
+     * getAnimationTask
+     *
+     * <p>
+     * Returns the task of the skip-night animation being played.
+     *
+     * @return the animation task, or null if there is none.
+     */
+    BukkitTask getAnimationTask() {
+        return animationTask;
+    }
+
+    /**
+     * <h1>
+     * setAnimationTask
+     *
+     * <p>
+     * Sets the task of the skip-night animation being played.
+     *
+     * @param animationTask the animation task, or null if there is none.
+     */
+    void setAnimationTask(BukkitTask animationTask) {
+        this.animationTask = animationTask;
+    }
+
+    /**
+     * <h1>
+     * getAccelerationTask
+     *
+     * <p>
+     * Returns the task that accelerates the time while players are resting.
+     *
+     * @return the acceleration task, or null if there is none.
+     */
+    BukkitTask getAccelerationTask() {
+        return accelerationTask;
+    }
+
+    /**
+     * <h1>
+     * setAccelerationTask
+     *
+     * <p>
+     * Sets the task that accelerates the time while players are resting.
+     *
+     * @param accelerationTask the acceleration task, or null if there is none.
+     */
+    void setAccelerationTask(BukkitTask accelerationTask) {
+        this.accelerationTask = accelerationTask;
+    }
+
+    /**
+     * <h1>
+     * getAccelerationRemainder
+     *
+     * <p>
+     * Returns the fraction of a tick accelerated but not yet added to the time of the world.
+     *
+     * @return the acceleration remainder, from 0 to 1.
+     */
+    double getAccelerationRemainder() {
+        return accelerationRemainder;
+    }
+
+    /**
+     * <h1>
+     * setAccelerationRemainder
+     *
+     * <p>
+     * Sets the fraction of a tick accelerated but not yet added to the time of the world.
+     *
+     * @param accelerationRemainder the acceleration remainder, from 0 to 1.
+     */
+    void setAccelerationRemainder(double accelerationRemainder) {
+        this.accelerationRemainder = accelerationRemainder;
+    }
+}
@@ -0,0 +1,47 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * <h1>
+ * WorldUnloadListener
+ *
+ * <p>
+ * This is a Bukkit event listener that listens for unloaded worlds.
+ *
+ * <p>
+ * Releases the state of the unloaded world in {@link Resting}, fast-forwarding its skip-night animation
+ * to sunrise, so no task keeps running against the unloaded world and no reference to it is kept.
+ */
+public final class WorldUnloadListener implements Listener {
+    /** The Resting instance used by this listener. */
+    private final Resting resting;
+
+    /**
+     * <h1>
+     * WorldUnloadListener Constructor
+     * <p>
+     * Constructs a new WorldUnloadListener instance with the specified resting object.
+     *
+     * @param resting The Resting instance to use.
+     */
+    public WorldUnloadListener(Resting resting) {
+        this.resting = resting;
+    }
+
+    /**
+     * <h1>
+     * On World Unload
+     * <p>
+     * Releases the state of the unloaded world.
+     *
+     * @param event the WorldUnloadEvent that occurred.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        resting.releaseWorld(event.getWorld());
+    }
+}
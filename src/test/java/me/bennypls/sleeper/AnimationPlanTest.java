@@ -0,0 +1,58 @@
+package me.bennypls.sleeper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <h1>
+ * AnimationPlanTest
+ *
+ * <p>
+ * Tests the validation and the precomputed frame tables of the skip-night animation.
+ */
+class AnimationPlanTest {
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new AnimationPlan(AnimationPlan.MIN_SPEED - 1, 1, Easing.LINEAR));
+        assertThrows(IllegalArgumentException.class, () -> new AnimationPlan(24001, 1, Easing.LINEAR));
+        assertThrows(IllegalArgumentException.class, () -> new AnimationPlan(125, 0, Easing.LINEAR));
+    }
+
+    @Test
+    void everyTableEndsAtSunrise() {
+        for (Easing easing : Easing.values()) {
+            var plan = new AnimationPlan(125, 1, easing);
+
+            for (long distance = 0; distance <= 24000; distance += AnimationPlan.BUCKET_SIZE) {
+                var frames = plan.getFrames(distance);
+                assertEquals(AnimationPlan.ONE, frames[frames.length - 1]);
+            }
+        }
+    }
+
+    @Test
+    void framesNeverGoBack() {
+        for (Easing easing : Easing.values()) {
+            var frames = new AnimationPlan(10, 1, easing).getFrames(24000);
+
+            assertTrue(frames[0] >= 0);
+
+            for (int i = 1; i < frames.length; i++) {
+                assertTrue(frames[i] >= frames[i - 1], easing + " goes back at frame " + i);
+            }
+        }
+    }
+
+    @Test
+    void framesFollowTheSpeed() {
+        var plan = new AnimationPlan(125, 1, Easing.LINEAR);
+
+        assertEquals(1, plan.getFrames(0).length);
+        assertEquals(1, plan.getFrames(99).length);
+        assertEquals(10850 / 125, plan.getFrames(10850).length);
+        assertEquals(plan.getFrames(24000).length, plan.getFrames(100000).length);
+    }
+}
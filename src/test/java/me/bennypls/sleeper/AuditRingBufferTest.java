@@ -0,0 +1,97 @@
+package me.bennypls.sleeper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <h1>
+ * AuditRingBufferTest
+ *
+ * <p>
+ * Tests the single-producer single-consumer buffer of the audit records.
+ */
+class AuditRingBufferTest {
+    @Test
+    void pollsNothingWhenEmpty() {
+        assertNull(new AuditRingBuffer<String>(4).poll());
+    }
+
+    @Test
+    void pollsInTheOrderOffered() {
+        var buffer = new AuditRingBuffer<String>(4);
+
+        assertTrue(buffer.offer("a"));
+        assertTrue(buffer.offer("b"));
+        assertEquals("a", buffer.poll());
+        assertEquals("b", buffer.poll());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void rejectsWhenFull() {
+        var buffer = new AuditRingBuffer<Integer>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(4));
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+    }
+
+    @Test
+    void roundsTheCapacityUpToAPowerOfTwo() {
+        var buffer = new AuditRingBuffer<Integer>(3);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(4));
+    }
+
+    @Test
+    void wrapsAroundManyTimes() {
+        var buffer = new AuditRingBuffer<Integer>(2);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(buffer.offer(i));
+            assertEquals(i, buffer.poll());
+        }
+
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void handsOverBetweenTwoThreads() throws InterruptedException {
+        var buffer = new AuditRingBuffer<Integer>(16);
+        int count = 100_000;
+        var producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!buffer.offer(i)) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+
+        producer.start();
+
+        for (int expected = 0; expected < count; expected++) {
+            Integer element;
+
+            while ((element = buffer.poll()) == null) {
+                Thread.onSpinWait();
+            }
+
+            assertEquals(expected, element);
+        }
+
+        producer.join();
+        assertNull(buffer.poll());
+    }
+}
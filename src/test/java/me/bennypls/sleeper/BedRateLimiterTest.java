@@ -0,0 +1,93 @@
+package me.bennypls.sleeper;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <h1>
+ * BedRateLimiterTest
+ *
+ * <p>
+ * Tests the token bucket of the bed entries, with a refill slow enough to not refill during a test.
+ */
+class BedRateLimiterTest {
+    /** A player of the tests. */
+    private final UUID player = UUID.randomUUID();
+
+    @Test
+    void allowsTheCapacityThenRejects() {
+        var limiter = limiter(3, 20);
+
+        assertTrue(limiter.tryAcquire(player));
+        assertTrue(limiter.tryAcquire(player));
+        assertTrue(limiter.tryAcquire(player));
+        assertFalse(limiter.tryAcquire(player));
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void waitsAtMostOneRefill() {
+        var limiter = limiter(1, 20);
+
+        assertTrue(limiter.tryAcquire(player));
+        assertFalse(limiter.tryAcquire(player));
+
+        var ticks = limiter.getTicksUntilAllowed(player);
+        assertTrue(ticks >= 1 && ticks <= 20, "waits " + ticks + " ticks");
+    }
+
+    @Test
+    void keepsABucketPerPlayer() {
+        var limiter = limiter(1, 20);
+
+        assertTrue(limiter.tryAcquire(player));
+        assertFalse(limiter.tryAcquire(player));
+        assertTrue(limiter.tryAcquire(UUID.randomUUID()));
+    }
+
+    @Test
+    void forgetRefillsTheBucket() {
+        var limiter = limiter(1, 20);
+
+        assertTrue(limiter.tryAcquire(player));
+        limiter.forget(player);
+        assertTrue(limiter.tryAcquire(player));
+    }
+
+    @Test
+    void noRefillDisablesTheLimit() {
+        var limiter = limiter(1, 0);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(player));
+        }
+
+        assertEquals(0, limiter.getRejected());
+        assertEquals(1, limiter.getTicksUntilAllowed(player));
+    }
+
+    /**
+     * <h1>
+     * limiter
+     *
+     * <p>
+     * Creates a rate limiter with the given bed spam settings.
+     *
+     * @param capacity    the bed entries allowed in a burst.
+     * @param refillTicks the ticks to refill one bed entry.
+     * @return the rate limiter.
+     */
+    private static BedRateLimiter limiter(int capacity, int refillTicks) {
+        var file = new YamlConfiguration();
+        file.set("bed-spam-capacity", capacity);
+        file.set("bed-spam-refill-ticks", refillTicks);
+
+        return new BedRateLimiter(new Configuration(null, file));
+    }
+}
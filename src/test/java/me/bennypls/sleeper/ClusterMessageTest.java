@@ -0,0 +1,55 @@
+package me.bennypls.sleeper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * <h1>
+ * ClusterMessageTest
+ *
+ * <p>
+ * Tests the encoding of the batches exchanged between the servers of the network.
+ */
+class ClusterMessageTest {
+    @Test
+    void roundTripsAFullBatch() throws IOException {
+        var message = new ClusterMessage(
+            "lobby-1",
+            1_700_000_000_000L,
+            true,
+            List.of(new ClusterMessage.WorldCount("world", 3, 12), new ClusterMessage.WorldCount("world.nether", 0, 65535)),
+            List.of(new ClusterMessage.Skip("world", 42L))
+        );
+
+        assertEquals(message, ClusterMessage.decode(message.encode()));
+    }
+
+    @Test
+    void roundTripsAnEmptyBatch() throws IOException {
+        var message = new ClusterMessage("survival", 0, false, List.of(), List.of());
+
+        assertEquals(message, ClusterMessage.decode(message.encode()));
+    }
+
+    @Test
+    void rejectsAnotherVersion() {
+        var bytes = new ClusterMessage("survival", 1, false, List.of(), List.of()).encode();
+        bytes[0]++;
+
+        assertThrows(IOException.class, () -> ClusterMessage.decode(bytes));
+    }
+
+    @Test
+    void rejectsATruncatedBatch() {
+        var bytes = new ClusterMessage("survival", 1, false, List.of(), List.of(new ClusterMessage.Skip("world", 7L))).encode();
+        var truncated = Arrays.copyOf(bytes, bytes.length - 4);
+
+        assertThrows(IOException.class, () -> ClusterMessage.decode(truncated));
+    }
+}
@@ -0,0 +1,41 @@
+package me.bennypls.sleeper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * <h1>
+ * EasingTest
+ *
+ * <p>
+ * Tests the easing curves of the skip-night animation and their configuration names.
+ */
+class EasingTest {
+    @Test
+    void curvesStartAtZeroAndEndAtOne() {
+        for (Easing easing : Easing.values()) {
+            assertEquals(0, easing.apply(0), 1e-9);
+            assertEquals(1, easing.apply(1), 1e-9);
+        }
+    }
+
+    @Test
+    void curvesHaveTheirShape() {
+        assertEquals(0.5, Easing.LINEAR.apply(0.5), 1e-9);
+        assertEquals(0.25, Easing.EASE_IN.apply(0.5), 1e-9);
+        assertEquals(0.75, Easing.EASE_OUT.apply(0.5), 1e-9);
+        assertEquals(0.5, Easing.SMOOTHSTEP.apply(0.5), 1e-9);
+    }
+
+    @Test
+    void readsTheConfigurationNames() {
+        assertEquals(Easing.LINEAR, Easing.fromName("linear"));
+        assertEquals(Easing.EASE_IN, Easing.fromName("ease-in"));
+        assertEquals(Easing.EASE_OUT, Easing.fromName(" Ease-Out "));
+        assertEquals(Easing.SMOOTHSTEP, Easing.fromName("SMOOTHSTEP"));
+        assertThrows(IllegalArgumentException.class, () -> Easing.fromName("bounce"));
+        assertThrows(IllegalArgumentException.class, () -> Easing.fromName(null));
+    }
+}
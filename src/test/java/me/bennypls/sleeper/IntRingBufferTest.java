@@ -0,0 +1,56 @@
+package me.bennypls.sleeper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <h1>
+ * IntRingBufferTest
+ *
+ * <p>
+ * Tests the fixed-size buffer of the last values of the sleep statistics.
+ */
+class IntRingBufferTest {
+    @Test
+    void startsEmpty() {
+        var buffer = new IntRingBuffer(3);
+
+        assertEquals(0, buffer.size());
+        assertArrayEquals(new int[0], buffer.toArray());
+    }
+
+    @Test
+    void keepsTheValuesInOrderUntilFull() {
+        var buffer = new IntRingBuffer(3);
+        buffer.add(5);
+        buffer.add(7);
+
+        assertEquals(2, buffer.size());
+        assertArrayEquals(new int[] {5, 7}, buffer.toArray());
+    }
+
+    @Test
+    void overwritesTheOldestValueWhenFull() {
+        var buffer = new IntRingBuffer(3);
+
+        for (int value = 1; value <= 5; value++) {
+            buffer.add(value);
+        }
+
+        assertEquals(3, buffer.size());
+        assertArrayEquals(new int[] {3, 4, 5}, buffer.toArray());
+    }
+
+    @Test
+    void sortsACopyOfTheValues() {
+        var buffer = new IntRingBuffer(4);
+        buffer.add(9);
+        buffer.add(-1);
+        buffer.add(4);
+
+        assertArrayEquals(new int[] {-1, 4, 9}, buffer.toSortedArray());
+        assertArrayEquals(new int[] {9, -1, 4}, buffer.toArray());
+    }
+}
@@ -0,0 +1,72 @@
+package me.bennypls.sleeper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <h1>
+ * ThresholdPolicyTest
+ *
+ * <p>
+ * Tests the number of players necessary to skip the night computed by each threshold policy.
+ */
+class ThresholdPolicyTest {
+    @Test
+    void percentageRoundsUp() {
+        var policy = new PercentageThresholdPolicy(0.25);
+
+        assertEquals(1, policy.getNecessary(1));
+        assertEquals(1, policy.getNecessary(4));
+        assertEquals(2, policy.getNecessary(5));
+        assertEquals(25, policy.getNecessary(100));
+    }
+
+    @Test
+    void percentageNeedsAtLeastOne() {
+        assertEquals(1, new PercentageThresholdPolicy(0.25).getNecessary(0));
+        assertEquals(1, new PercentageThresholdPolicy(0).getNecessary(10));
+    }
+
+    @Test
+    void tieredUsesTheTierOfThePopulation() {
+        var tiers = new TreeMap<Integer, Double>();
+        tiers.put(10, 0.5);
+        tiers.put(50, 0.1);
+        var policy = new TieredThresholdPolicy(tiers, 1.0);
+
+        assertEquals(9, policy.getNecessary(9));
+        assertEquals(5, policy.getNecessary(10));
+        assertEquals(25, policy.getNecessary(49));
+        assertEquals(5, policy.getNecessary(50));
+        assertEquals(20, policy.getNecessary(200));
+    }
+
+    @Test
+    void tieredNeedsAtLeastOne() {
+        assertEquals(1, new TieredThresholdPolicy(new TreeMap<>(), 0.5).getNecessary(0));
+    }
+
+    @Test
+    void fixedIsCappedByThePopulation() {
+        var policy = new FixedThresholdPolicy(3);
+
+        assertEquals(3, policy.getNecessary(10));
+        assertEquals(3, policy.getNecessary(3));
+        assertEquals(2, policy.getNecessary(2));
+        assertEquals(1, policy.getNecessary(0));
+    }
+
+    @Test
+    void majorityNeedsMoreThanHalf() {
+        var policy = new MajorityThresholdPolicy();
+
+        assertEquals(1, policy.getNecessary(0));
+        assertEquals(1, policy.getNecessary(1));
+        assertEquals(2, policy.getNecessary(2));
+        assertEquals(2, policy.getNecessary(3));
+        assertEquals(3, policy.getNecessary(4));
+    }
+}
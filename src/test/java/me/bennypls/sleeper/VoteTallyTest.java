@@ -0,0 +1,86 @@
+package me.bennypls.sleeper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <h1>
+ * VoteTallyTest
+ *
+ * <p>
+ * Tests the weighted totals of the sleep votes of a world.
+ */
+class VoteTallyTest {
+    /** A player of the tests. */
+    private final UUID first = UUID.randomUUID();
+    /** Another player of the tests. */
+    private final UUID second = UUID.randomUUID();
+
+    @Test
+    void countsTheWeightOfEachSide() {
+        var tally = new VoteTally();
+
+        assertTrue(tally.cast(first, true, 2));
+        assertTrue(tally.cast(second, false, 1));
+        assertEquals(2, tally.getYesWeight());
+        assertEquals(1, tally.getNoWeight());
+    }
+
+    @Test
+    void replacingAVoteMovesItsWeight() {
+        var tally = new VoteTally();
+        tally.cast(first, true, 2);
+
+        assertFalse(tally.cast(first, true, 2));
+        assertTrue(tally.cast(first, false, 2));
+        assertEquals(0, tally.getYesWeight());
+        assertEquals(2, tally.getNoWeight());
+    }
+
+    @Test
+    void removingAVoteRemovesItsWeight() {
+        var tally = new VoteTally();
+        tally.cast(first, true, 2);
+        tally.cast(second, true, 1);
+
+        assertTrue(tally.remove(first));
+        assertFalse(tally.remove(first));
+        assertNull(tally.getVote(first));
+        assertEquals(1, tally.getYesWeight());
+    }
+
+    @Test
+    void clearingRemovesEveryWeight() {
+        var tally = new VoteTally();
+        tally.cast(first, true, 2);
+        tally.cast(second, false, 1);
+        tally.clear();
+
+        assertTrue(tally.isEmpty());
+        assertEquals(0, tally.getYesWeight());
+        assertEquals(0, tally.getNoWeight());
+    }
+
+    @Test
+    void reweighingReplacesTheWeights() {
+        var tally = new VoteTally();
+        tally.cast(first, true, 1);
+        tally.cast(second, false, 1);
+        tally.reweigh(Map.of(first, 3));
+
+        assertEquals(3, tally.getYesWeight());
+        assertEquals(0, tally.getNoWeight());
+        assertEquals(new VoteTally.Vote(true, 3), tally.getVote(first));
+        assertEquals(new VoteTally.Vote(false, 0), tally.getVote(second));
+
+        assertTrue(tally.remove(first));
+        assertEquals(0, tally.getYesWeight());
+    }
+}